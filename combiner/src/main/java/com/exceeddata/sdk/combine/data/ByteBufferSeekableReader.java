@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import com.exceeddata.sdk.vdata.binary.BinaryEOFException;
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Seekable little endian reader over a ByteBuffer.
+ * Unlike LittleEndianSeekableBytesReader it can read a region of a larger buffer,
+ * and {@link #slice(int)} returns views instead of copies.
+ */
+public class ByteBufferSeekableReader implements BinarySeekableReader {
+    private static final long serialVersionUID = 4361409387164310826L;
+
+    private transient ByteBuffer buffer;
+
+    /**
+     * Create a reader over the remaining bytes of the buffer. The buffer position and limit are not changed.
+     * @param buffer the buffer
+     */
+    public ByteBufferSeekableReader(ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public ByteBufferSeekableReader(byte[] data) {
+        this(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Read bytes as a little endian view of the underlying data, without copying.
+     * @param len the number of bytes
+     * @return the view, positioned at 0
+     * @throws IOException if not enough bytes remain
+     */
+    public ByteBuffer slice(int len) throws IOException {
+        if (len < 0 || len > buffer.remaining()) {
+            throw new BinaryEOFException();
+        }
+        ByteBuffer view = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        view.limit(len);
+        buffer.position(buffer.position() + len);
+        return view;
+    }
+
+    @Override
+    public byte[] readBytes(int len) throws IOException {
+        if (len < 0 || len > buffer.remaining()) {
+            throw new BinaryEOFException();
+        }
+        byte[] data = new byte[len];
+        buffer.get(data);
+        return data;
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        if (pos < 0 || pos > buffer.limit()) {
+            throw new BinaryEOFException();
+        }
+        buffer.position((int) pos);
+    }
+
+    @Override
+    public void skipBytes(int len) throws IOException {
+        seek(buffer.position() + (long) len);
+    }
+
+    @Override
+    public long getPos() {
+        return buffer.position();
+    }
+
+    public long getLength() {
+        return buffer.limit();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        ByteBuffer all = buffer.duplicate();
+        all.clear();
+        byte[] data = new byte[all.remaining()];
+        all.get(data);
+        out.writeInt(buffer.position());
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int pos = in.readInt();
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(pos);
+    }
+}
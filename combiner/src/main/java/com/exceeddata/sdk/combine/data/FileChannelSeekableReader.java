@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import com.exceeddata.sdk.vdata.binary.BinaryEOFException;
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Seekable reader over a shared FileChannel with positional reads, so a large container can be read
+ * by many readers at once without loading or mapping it whole.
+ * Each reader keeps its own position. The channel is owned by the caller and is not closed by {@link #close()}.
+ * The reader is not meant to be serialized.
+ */
+public class FileChannelSeekableReader implements BinarySeekableReader {
+    private static final long serialVersionUID = -6021744915628034771L;
+
+    private final transient FileChannel channel;
+    private final long length;
+    private long pos = 0L;
+
+    /**
+     * @param channel the channel to read
+     * @throws IOException on exception
+     */
+    public FileChannelSeekableReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.length = channel.size();
+    }
+
+    @Override
+    public byte[] readBytes(int len) throws IOException {
+        if (len < 0 || len > length - pos) {
+            throw new BinaryEOFException();
+        }
+        byte[] data = new byte[len];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, pos + buffer.position());
+            if (n < 0) {
+                throw new BinaryEOFException();
+            }
+        }
+        pos += len;
+        return data;
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        if (pos < 0 || pos > length) {
+            throw new BinaryEOFException();
+        }
+        this.pos = pos;
+    }
+
+    @Override
+    public void skipBytes(int len) throws IOException {
+        seek(pos + len);
+    }
+
+    @Override
+    public long getPos() {
+        return pos;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -33,7 +33,6 @@ package com.exceeddata.sdk.combine.data;
 
 
 import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
-import com.exceeddata.sdk.vdata.binary.LittleEndianSeekableBytesReader;
 import com.exceeddata.sdk.vdata.data.VDataReader;
 
 import java.io.IOException;
@@ -61,7 +60,7 @@ public class MVDataReaderFactory  {
         if (datas != null && datas.length !=1) {
             throw  new IOException( "Only one byte array support for MultiVswFormat decode.");
         }else if (datas!=null){
-            reader= new LittleEndianSeekableBytesReader(datas[0]);
+            reader= new ByteBufferSeekableReader(datas[0]);
         }
         MultiVDataFileReader mvfr = new MultiVDataFileReader( reader);
         mvfr.initialize();
@@ -79,7 +78,7 @@ public class MVDataReaderFactory  {
                     MultiVswIndexInfo entry = rit.next();
                     final String deviceid = entry.getDeviceIdStr();
                     List<BinarySeekableReader> readers = new ArrayList<>();
-                    readers.add(new LittleEndianSeekableBytesReader(entry.getVsw()));
+                    readers.add(entry.getVswReader());
                     //TODO add more parameters
 //                    final VDataReader reader = new VDataReader(readers, signals, insensitiveCase, applyFormula, queryFilter, queryStartTime, queryEndTime,
 //                            readLivingData, columnExpandMode, signalQueueMode, signalDecoders, keyIdMap);
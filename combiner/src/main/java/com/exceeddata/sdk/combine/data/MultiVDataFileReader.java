@@ -32,11 +32,11 @@
 package com.exceeddata.sdk.combine.data;
 
 
-import com.exceeddata.sdk.vdata.binary.BinaryLittleEndianUtils;
 import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
-import com.exceeddata.sdk.vdata.binary.LittleEndianSeekableBytesReader;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -54,6 +54,7 @@ public class MultiVDataFileReader {
     int indexInfoSize = 0;
 
     int offset_vsw_block=0;
+    long dataOffset = 0L;
     byte[] extendedInfo= new byte[ 0];
 
     ArrayList<MultiVswIndexInfo> vsws = new ArrayList<>();
@@ -92,7 +93,7 @@ public class MultiVDataFileReader {
         ArrayList <BinarySeekableReader>  readers = new ArrayList<>();
 
         for (int i=0 ; i< vsws.size() ; i ++){
-            readers.add( new LittleEndianSeekableBytesReader( vsws.get(i).getVsw()));
+            readers.add( vsws.get(i).getVswReader());
         }
         return readers;
     }
@@ -101,7 +102,7 @@ public class MultiVDataFileReader {
         ArrayList <BinarySeekableReader>  readers = new ArrayList<>();
 
         for (int i=0 ; i< vsws.size() ; i ++){
-            readers.add( new LittleEndianSeekableBytesReader( vsws.get(i).getVsw()));
+            readers.add( vsws.get(i).getVswReader());
         }
         return readers;
     }
@@ -122,7 +123,7 @@ public class MultiVDataFileReader {
                 result.put( info.getDeviceIdStr(), readers);
             }
 
-            readers.add( new LittleEndianSeekableBytesReader( vsws.get(i).getVsw()));
+            readers.add( info.getVswReader());
         }
         return result;
     }
@@ -137,28 +138,41 @@ public class MultiVDataFileReader {
      * @throws IOException on exception
      */
     public void readMeta() throws IOException {
-        final byte[] databytes = reader.readBytes(32);
-        final String blockid = BinaryLittleEndianUtils.bytesToANSI(databytes, 0, 2);
-        if (!"MD".equals(blockid)) {
+        final ByteBuffer databytes = read(32);
+        if (databytes.get(0) != 'M' || databytes.get(1) != 'D') {
             throw new IOException("FORMAT_VSHADOW_MAGIC_NUMBER_INVALID");
         }
 
-        formatVersion = BinaryLittleEndianUtils.bytesToUINT8int(databytes, 2);
-        blocksCount = BinaryLittleEndianUtils.bytesToINT32(databytes, 4);
+        formatVersion = databytes.get(2) & 0xFF;
+        blocksCount = databytes.getInt(4);
         if (blocksCount <= 0) {
             throw new IOException("FORMAT_VSHADOW_BLOCKS_COUNT_INVALID");
         }
 
-        indexInfoSize = BinaryLittleEndianUtils.bytesToINT32(databytes, 8);
+        indexInfoSize = databytes.getInt(8);
 
-        sstime = BinaryLittleEndianUtils.bytesToINT64(databytes, 12);
-        setime = BinaryLittleEndianUtils.bytesToINT64(databytes, 20);
+        sstime = databytes.getLong(12);
+        setime = databytes.getLong(20);
 
-        int extlength = BinaryLittleEndianUtils.bytesToUINT16(databytes, 28);
+        int extlength = databytes.getShort(28) & 0xFFFF;
 
         extendedInfo = extlength > 0 ? reader.readBytes(extlength) : new byte[] {};
     }
 
+    /**
+     * Read the next bytes as a little endian buffer. A ByteBufferSeekableReader returns a view
+     * of its data, other readers a wrapped copy.
+     * @param len the number of bytes
+     * @return the bytes
+     * @throws IOException on exception
+     */
+    private ByteBuffer read(int len) throws IOException {
+        if (reader instanceof ByteBufferSeekableReader) {
+            return ((ByteBufferSeekableReader) reader).slice(len);
+        }
+        return ByteBuffer.wrap(reader.readBytes(len)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
     /**
      * Read VSW IndexBlockInformation
      * Filter Data by DeviceId QueryStart/End Time
@@ -167,8 +181,8 @@ public class MultiVDataFileReader {
      */
     public void readVswIndexInfo() throws  IOException{
         for (int i =0 ;i < blocksCount; i ++){
-            byte [] vswIndexBlock = reader.readBytes(MultiVswIndexInfo.VSW_INDEX_BASE_SIZE + indexInfoSize );
-            MultiVswIndexInfo indexInfo = MultiVswIndexInfo.fromBytes( vswIndexBlock);
+            ByteBuffer vswIndexBlock = read(MultiVswIndexInfo.VSW_INDEX_BASE_SIZE + indexInfoSize );
+            MultiVswIndexInfo indexInfo = MultiVswIndexInfo.fromBuffer( vswIndexBlock);
             if (indexInfo.isMatched(this.deviceId, this.sstime, this.setime))  {
                 vsws.add( indexInfo);
             }else{
@@ -177,17 +191,46 @@ public class MultiVDataFileReader {
         }
     }
 
+    /**
+     * Read the metadata and the index information of all vsw, without filtering and without loading vsw data.
+     * The vsw data follow the index in the same order, starting at {@link #getDataOffset()}.
+     * @return index information in container order
+     * @throws IOException
+     */
+    public List<MultiVswIndexInfo> readIndexOnly() throws  IOException{
+        readMeta();
+        List<MultiVswIndexInfo> infos = new ArrayList<>(blocksCount);
+        for (int i =0 ;i < blocksCount; i ++){
+            infos.add( MultiVswIndexInfo.fromBuffer( read(MultiVswIndexInfo.VSW_INDEX_BASE_SIZE + indexInfoSize )));
+        }
+        dataOffset = reader.getPos();
+        return infos;
+    }
+
+    public long getDataOffset(){
+        return dataOffset;
+    }
+
     /**
      * Read filtered VSW Data.
+     * With a ByteBufferSeekableReader the vsw data are views of the container, no copy is made.
      * @throws IOException
      */
     public void readVswData() throws  IOException {
         for (int i =0 ; i<vsws.size() ; i ++){
-            byte [] vswData = reader.readBytes( vsws.get(i).getLength());
-            vsws.get(i).setVsw(vswData);
+            if (reader instanceof ByteBufferSeekableReader) {
+                vsws.get(i).setVsw(read(vsws.get(i).getLength()));
+            } else {
+                byte [] vswData = reader.readBytes( vsws.get(i).getLength());
+                vsws.get(i).setVsw(vswData);
+            }
         }
     }
 
+    public int getFormatVersion(){
+        return formatVersion;
+    }
+
     public byte[] getExtendedInfo(){
         return extendedInfo;
     }
@@ -0,0 +1,399 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compacts mvsw containers: vsw entries of many inputs are written sorted by device id and query start time,
+ * byte-identical duplicate vsw of the same device are dropped, and the output can be partitioned by device hash or time range.
+ * Inputs are indexed and hashed in parallel, and partitions are written in parallel.
+ * Only the indexes are kept in memory: vsw data are hashed through a small buffer and copied channel to channel.
+ * All inputs must have the same format version, index info size and header extended info, which are written to the outputs.
+ */
+public class MultiVswCompactor {
+
+    public enum Partition {
+        /** partition by device id hash, so each device is in one output */
+        DEVICE,
+        /** partition into contiguous query start time ranges of about equal entry counts */
+        TIME
+    }
+
+    private static final int HEADER_SIZE = 32;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private int partitions = 1;
+    private Partition partition = Partition.DEVICE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public MultiVswCompactor setPartitions(int partitions) {
+        this.partitions = Math.max(1, partitions);
+        return this;
+    }
+
+    public MultiVswCompactor setPartition(Partition partition) {
+        this.partition = partition;
+        return this;
+    }
+
+    public MultiVswCompactor setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Compact the inputs.
+     * With one partition the output is written to the output path, otherwise to the output path with "-index" inserted before the extension.
+     * Empty partitions are not written.
+     * @param inputs the input container paths
+     * @param output the output path
+     * @return the result
+     * @throws IOException on exception
+     */
+    public Result compact(List<String> inputs, String output) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(inputs.size(), partitions)));
+        List<FileChannel> channels = new ArrayList<>(inputs.size());
+        try {
+            for (String input : inputs) {
+                channels.add(FileChannel.open(Paths.get(input), StandardOpenOption.READ));
+            }
+
+            List<Future<InputIndex>> indexFutures = new ArrayList<>();
+            for (int i = 0; i < inputs.size(); i++) {
+                final int input = i;
+                final FileChannel channel = channels.get(i);
+                indexFutures.add(executor.submit(() -> index(input, channel)));
+            }
+            List<InputIndex> indexes = new ArrayList<>();
+            for (Future<InputIndex> future : indexFutures) {
+                indexes.add(await(future));
+            }
+
+            int formatVersion = indexes.isEmpty() ? 10 : indexes.get(0).formatVersion;
+            int indexInfoSize = indexes.isEmpty() ? 0 : indexes.get(0).indexInfoSize;
+            byte[] extendedInfo = indexes.isEmpty() ? new byte[0] : indexes.get(0).extendedInfo;
+            int inputEntries = 0;
+            Map<ByteBuffer, Entry> unique = new LinkedHashMap<>();
+            for (InputIndex index : indexes) {
+                if (index.formatVersion != formatVersion) {
+                    throw new IOException("Format version mismatch: " + inputs.get(index.input) + " has " + index.formatVersion + ", expected " + formatVersion);
+                }
+                if (index.indexInfoSize != indexInfoSize) {
+                    throw new IOException("Index info size mismatch: " + inputs.get(index.input) + " has " + index.indexInfoSize + ", expected " + indexInfoSize);
+                }
+                if (!Arrays.equals(index.extendedInfo, extendedInfo)) {
+                    throw new IOException("Extended info mismatch: " + inputs.get(index.input));
+                }
+                inputEntries += index.entries.size();
+                for (Entry entry : index.entries) {
+                    unique.putIfAbsent(ByteBuffer.wrap(entry.digest), entry);
+                }
+            }
+
+            List<List<Entry>> parts = partition(new ArrayList<>(unique.values()));
+            List<Future<Long>> writeFutures = new ArrayList<>();
+            List<String> outputs = new ArrayList<>();
+            for (int p = 0; p < parts.size(); p++) {
+                final List<Entry> part = parts.get(p);
+                if (part.isEmpty()) {
+                    continue;
+                }
+                final String path = parts.size() == 1 ? output : partitionPath(output, p);
+                outputs.add(path);
+                writeFutures.add(executor.submit(() -> write(path, part, formatVersion, indexInfoSize, extendedInfo, channels)));
+            }
+            long bytes = 0L;
+            for (Future<Long> future : writeFutures) {
+                bytes += await(future);
+            }
+            return new Result(inputEntries, inputEntries - unique.size(), outputs, bytes);
+        } finally {
+            executor.shutdownNow();
+            for (FileChannel channel : channels) {
+                try {
+                    channel.close();
+                } catch (IOException e) {}
+            }
+        }
+    }
+
+    /**
+     * Read the index of an input and hash its vsw data.
+     * Only the header and index are mapped, vsw data are read through a buffer.
+     */
+    private static InputIndex index(int input, FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0L);
+        int blocksCount = header.getInt(4);
+        int indexInfoSize = header.getInt(8);
+        int extlength = header.getShort(28) & 0xFFFF;
+        long indexEnd = HEADER_SIZE + extlength + (long) Math.max(blocksCount, 0) * (MultiVswIndexInfo.VSW_INDEX_BASE_SIZE + indexInfoSize);
+        if (indexEnd > channel.size()) {
+            throw new IOException("FORMAT_VSHADOW_INDEX_TRUNCATED");
+        }
+
+        MultiVDataFileReader reader = new MultiVDataFileReader(new ByteBufferSeekableReader(channel.map(FileChannel.MapMode.READ_ONLY, 0L, indexEnd)));
+        List<MultiVswIndexInfo> infos = reader.readIndexOnly();
+
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+        List<Entry> entries = new ArrayList<>(infos.size());
+        long position = reader.getDataOffset();
+        for (MultiVswIndexInfo info : infos) {
+            long end = position + info.getLength();
+            if (end > channel.size()) {
+                throw new IOException("FORMAT_VSHADOW_DATA_TRUNCATED");
+            }
+            for (long p = position; p < end; ) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - p));
+                readFully(channel, buffer, p);
+                buffer.flip();
+                p += buffer.remaining();
+                digest.update(buffer);
+            }
+            //the length and device id are part of the key, so only byte-identical vsw of the same device are duplicates
+            digest.update(ByteBuffer.allocate(4).putInt(0, info.getLength()));
+            digest.update(info.deviceId);
+            entries.add(new Entry(input, position, info, digest.digest()));
+            position = end;
+        }
+        return new InputIndex(input, reader.getFormatVersion(), indexInfoSize, reader.getExtendedInfo(), entries);
+    }
+
+    private List<List<Entry>> partition(List<Entry> entries) {
+        List<List<Entry>> parts = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            parts.add(new ArrayList<>());
+        }
+        if (partition == Partition.TIME) {
+            Collections.sort(entries, Comparator.comparingLong((Entry e) -> e.info.getQueryStartTime()));
+            int size = entries.size();
+            for (int i = 0; i < size; i++) {
+                parts.get((int) ((long) i * partitions / size)).add(entries.get(i));
+            }
+        } else {
+            for (Entry entry : entries) {
+                parts.get((entry.info.getDeviceIdStr().hashCode() & 0x7FFFFFFF) % partitions).add(entry);
+            }
+        }
+
+        Comparator<Entry> order = Comparator.comparing((Entry e) -> e.info.getDeviceIdStr())
+                .thenComparingLong(e -> e.info.getQueryStartTime())
+                .thenComparingLong(e -> e.info.getCollectTime());
+        for (List<Entry> part : parts) {
+            //stable, so entries equal in order keep the input order
+            Collections.sort(part, order);
+        }
+        return parts;
+    }
+
+    /**
+     * Write a container of the entries, copying vsw data from the input channels.
+     * @return the bytes written
+     */
+    private static long write(String path, List<Entry> entries, int formatVersion, int indexInfoSize, byte[] extendedInfo, List<FileChannel> inputs) throws IOException {
+        long sstime = Long.MAX_VALUE;
+        long setime = 0L;
+        for (Entry entry : entries) {
+            if (entry.info.getQueryStartTime() != 0 && entry.info.getQueryEndTime() != 0) {
+                sstime = Math.min(sstime, entry.info.getQueryStartTime());
+                setime = Math.max(setime, entry.info.getQueryEndTime());
+            }
+        }
+        if (sstime > setime) {
+            //no entry has query times: 0 is the unset time, as in the index entries
+            sstime = 0L;
+            setime = 0L;
+        }
+
+        ByteBuffer head = ByteBuffer.allocate(HEADER_SIZE + extendedInfo.length + entries.size() * (MultiVswIndexInfo.VSW_INDEX_BASE_SIZE + indexInfoSize))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        head.put((byte) 'M').put((byte) 'D').put((byte) formatVersion).put((byte) 0);
+        head.putInt(entries.size());
+        head.putInt(indexInfoSize);
+        head.putLong(sstime);
+        head.putLong(setime);
+        head.putShort((short) extendedInfo.length);
+        head.position(HEADER_SIZE);
+        head.put(extendedInfo);
+        int offset = 0;
+        for (Entry entry : entries) {
+            MultiVswIndexInfo info = entry.info;
+            head.put(new MultiVswIndexInfo(info.deviceId, info.collectTime, info.queryStartTime, info.queryEndTime, offset, info.extendInfo, info.length).encode());
+            offset += info.getLength();
+        }
+        head.flip();
+
+        try (FileChannel out = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (head.hasRemaining()) {
+                out.write(head);
+            }
+            for (Entry entry : entries) {
+                FileChannel in = inputs.get(entry.input);
+                long position = entry.position;
+                long end = position + entry.info.getLength();
+                while (position < end) {
+                    long n = in.transferTo(position, end - position, out);
+                    if (n <= 0) {
+                        throw new IOException("FORMAT_VSHADOW_DATA_TRUNCATED");
+                    }
+                    position += n;
+                }
+            }
+            return out.size();
+        }
+    }
+
+    private static String partitionPath(String output, int index) {
+        int dot = output.lastIndexOf('.');
+        int sep = Math.max(output.lastIndexOf('/'), output.lastIndexOf('\\'));
+        return dot > sep ? output.substring(0, dot) + "-" + index + output.substring(dot) : output + "-" + index;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long p = position;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, p);
+            if (n < 0) {
+                throw new IOException("FORMAT_VSHADOW_DATA_TRUNCATED");
+            }
+            p += n;
+        }
+    }
+
+    private static MessageDigest sha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Compaction interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    private static class Entry {
+        final int input;
+        final long position;
+        final MultiVswIndexInfo info;
+        final byte[] digest;
+
+        Entry(int input, long position, MultiVswIndexInfo info, byte[] digest) {
+            this.input = input;
+            this.position = position;
+            this.info = info;
+            this.digest = digest;
+        }
+    }
+
+    private static class InputIndex {
+        final int input;
+        final int formatVersion;
+        final int indexInfoSize;
+        final byte[] extendedInfo;
+        final List<Entry> entries;
+
+        InputIndex(int input, int formatVersion, int indexInfoSize, byte[] extendedInfo, List<Entry> entries) {
+            this.input = input;
+            this.formatVersion = formatVersion;
+            this.indexInfoSize = indexInfoSize;
+            this.extendedInfo = extendedInfo;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * The counts of a compaction.
+     */
+    public static class Result {
+        private final int inputEntries;
+        private final int duplicates;
+        private final List<String> outputs;
+        private final long bytesWritten;
+
+        Result(int inputEntries, int duplicates, List<String> outputs, long bytesWritten) {
+            this.inputEntries = inputEntries;
+            this.duplicates = duplicates;
+            this.outputs = outputs;
+            this.bytesWritten = bytesWritten;
+        }
+
+        public int getInputEntries() {
+            return inputEntries;
+        }
+
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        public List<String> getOutputs() {
+            return outputs;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public String toString() {
+            return String.format("Compacted %d vsw, dropped %d duplicates, wrote %d bytes to %s", inputEntries, duplicates, bytesWritten, outputs);
+        }
+    }
+}
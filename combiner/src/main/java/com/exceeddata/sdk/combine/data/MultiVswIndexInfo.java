@@ -31,9 +31,12 @@
  */
 package com.exceeddata.sdk.combine.data;
 
-import com.exceeddata.sdk.vdata.binary.BinaryLittleEndianUtils;
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+import com.exceeddata.sdk.vdata.binary.LittleEndianSeekableBytesReader;
 import com.exceeddata.sdk.vdata.util.LittleEndianBytesWriter;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Date;
 
 public class MultiVswIndexInfo {
@@ -52,6 +55,8 @@ public class MultiVswIndexInfo {
 
     byte [] vsw;
 
+    ByteBuffer vswBuffer;
+
     String sDeviceId;
 
     public MultiVswIndexInfo(String deviceId, long collectTime, long queryStartTime, long queryEndTime, int offset,byte[] extendInfo, byte [] vsw){
@@ -74,7 +79,7 @@ public class MultiVswIndexInfo {
     public MultiVswIndexInfo(byte [] deviceId, long collectTime, long queryStartTime, long queryEndTime, int offset,byte[] extendInfo, int length){
         byte [] buf = deviceId;
         int device_id_length = buf.length > DEVICE_ID_MAX_LENGTH?DEVICE_ID_MAX_LENGTH: buf.length;
-        System.arraycopy( buf, 0, deviceId,0, device_id_length);
+        System.arraycopy( buf, 0, this.deviceId,0, device_id_length);
 
         this.collectTime = collectTime;
         this.queryStartTime = queryStartTime;
@@ -108,10 +113,51 @@ public class MultiVswIndexInfo {
         return offset;
     }
 
+    public long getCollectTime(){
+        return collectTime;
+    }
+
+    public long getQueryStartTime(){
+        return queryStartTime;
+    }
+
+    public long getQueryEndTime(){
+        return queryEndTime;
+    }
+
+    /**
+     * Check whether the vsw time range intersects a query window. Entries without a time range always intersect.
+     * @param queryStartTime the query start time
+     * @param queryEndTime the query end time
+     * @return true if intersects
+     */
+    public boolean intersects(long queryStartTime, long queryEndTime){
+        if (this.queryEndTime ==0 || this.queryStartTime ==0){
+            return true;
+        }
+        return this.queryStartTime <= queryEndTime && this.queryEndTime >= queryStartTime;
+    }
+
     public byte [] getVsw(){
+        if (vsw == null && vswBuffer != null){
+            byte [] data = new byte[vswBuffer.remaining()];
+            vswBuffer.duplicate().get(data);
+            vsw = data;
+        }
         return  vsw;
     }
 
+    /**
+     * Get a reader over the vsw data. When the data was loaded as a buffer view the reader shares it without copying.
+     * @return reader of vsw data
+     */
+    public BinarySeekableReader getVswReader(){
+        if (vswBuffer != null){
+            return new ByteBufferSeekableReader(vswBuffer);
+        }
+        return new LittleEndianSeekableBytesReader(vsw);
+    }
+
     public byte [] getIndexInfo (){
         return encoded;
     }
@@ -129,6 +175,16 @@ public class MultiVswIndexInfo {
             //TODO , should not happen.
         }
         this.vsw = vsw;
+        this.vswBuffer = null;
+    }
+
+    /**
+     * Set the vsw data as a view of a larger buffer, without copying.
+     * @param vsw the vsw data view
+     */
+    public void setVsw (ByteBuffer vsw){
+        this.vswBuffer = vsw;
+        this.vsw = null;
     }
 
     /**
@@ -137,17 +193,29 @@ public class MultiVswIndexInfo {
      * @return
      */
     public static MultiVswIndexInfo fromBytes(byte [] encoded){
+        return fromBuffer(ByteBuffer.wrap(encoded));
+    }
+
+    /**
+     * Decode one Index Information from the remaining bytes of a buffer, using absolute little endian reads.
+     * The buffer position is not changed.
+     * @param encoded
+     * @return
+     */
+    public static MultiVswIndexInfo fromBuffer(ByteBuffer encoded){
+        ByteBuffer buf = encoded.slice().order(ByteOrder.LITTLE_ENDIAN);
         byte [] deviceId = new byte[ DEVICE_ID_MAX_LENGTH+1];
-        System.arraycopy( encoded , 0, deviceId , 0, DEVICE_ID_MAX_LENGTH+1);
-        long collectTime = BinaryLittleEndianUtils.bytesToINT64(encoded, 24);
-        long queryStartTime = BinaryLittleEndianUtils.bytesToINT64(encoded, 32);
-        long queryEndTime = BinaryLittleEndianUtils.bytesToINT64(encoded, 40);
-        int offset= BinaryLittleEndianUtils.bytesToINT32(encoded, 48);
-        int length= BinaryLittleEndianUtils.bytesToINT32(encoded, 52);
-
-        int extLength = encoded.length - VSW_INDEX_BASE_SIZE ;
+        buf.get(deviceId);
+        long collectTime = buf.getLong(24);
+        long queryStartTime = buf.getLong(32);
+        long queryEndTime = buf.getLong(40);
+        int offset= buf.getInt(48);
+        int length= buf.getInt(52);
+
+        int extLength = buf.limit() - VSW_INDEX_BASE_SIZE ;
         byte [] extInfo = new byte[ extLength];
-        System.arraycopy( encoded, 0, extInfo, 0, extLength);
+        buf.position(VSW_INDEX_BASE_SIZE);
+        buf.get(extInfo);
         return new MultiVswIndexInfo(deviceId, collectTime, queryStartTime, queryEndTime, offset, extInfo, length );
     }
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import java.io.Serializable;
+
+/**
+ * A split of an mvsw container: a contiguous byte range holding whole vsw entries.
+ * A split carries its entries' index information, so a task can read it without reading the container index again.
+ */
+public class MultiVswSplit implements Serializable {
+    private static final long serialVersionUID = -6409281857139350172L;
+
+    private final String path;
+    private final String[] deviceIds;
+    private final long[] startTimes;
+    private final long[] endTimes;
+    private final long[] positions;
+    private final int[] lengths;
+
+    MultiVswSplit(String path, String[] deviceIds, long[] startTimes, long[] endTimes, long[] positions, int[] lengths) {
+        this.path = path;
+        this.deviceIds = deviceIds;
+        this.startTimes = startTimes;
+        this.endTimes = endTimes;
+        this.positions = positions;
+        this.lengths = lengths;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the byte position of the first vsw in the container
+     */
+    public long getStart() {
+        return positions[0];
+    }
+
+    /**
+     * @return the number of bytes from the first vsw to the end of the last
+     */
+    public long getLength() {
+        return positions[positions.length - 1] + lengths[lengths.length - 1] - positions[0];
+    }
+
+    public int getEntryCount() {
+        return positions.length;
+    }
+
+    public String getDeviceId(int entry) {
+        return deviceIds[entry];
+    }
+
+    public long getStartTime(int entry) {
+        return startTimes[entry];
+    }
+
+    public long getEndTime(int entry) {
+        return endTimes[entry];
+    }
+
+    public long getPosition(int entry) {
+        return positions[entry];
+    }
+
+    public int getLength(int entry) {
+        return lengths[entry];
+    }
+
+    public String toString() {
+        return String.format("MVSW split %s [%d, +%d) with %d vsw", path, getStart(), getLength(), getEntryCount());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans splits of an mvsw container at vsw entry boundaries, so a large container can be read by many tasks in parallel.
+ * Only the container header and index are read. Device and time window filters are applied to the index,
+ * so entries outside the query are never read.
+ */
+public class MultiVswSplitPlanner {
+
+    private MultiVswSplitPlanner() {
+    }
+
+    /**
+     * Plan splits of all entries.
+     * @param path the container path, recorded in the splits
+     * @param reader a reader of the container, positioned at 0
+     * @param targetSplitBytes the target bytes per split. A split holds at least one entry.
+     * @return the splits in container order
+     * @throws IOException on exception
+     */
+    public static List<MultiVswSplit> plan(String path, BinarySeekableReader reader, long targetSplitBytes) throws IOException {
+        return plan(path, reader, targetSplitBytes, null, 0L, Long.MAX_VALUE);
+    }
+
+    /**
+     * Plan splits of the entries matching a device and intersecting a time window.
+     * @param path the container path, recorded in the splits
+     * @param reader a reader of the container, positioned at 0
+     * @param targetSplitBytes the target bytes per split. A split holds at least one entry.
+     * @param deviceId the device id, or null or empty for all devices
+     * @param queryStartTime the query start time
+     * @param queryEndTime the query end time
+     * @return the splits in container order
+     * @throws IOException on exception
+     */
+    public static List<MultiVswSplit> plan(String path, BinarySeekableReader reader, long targetSplitBytes,
+                                           String deviceId, long queryStartTime, long queryEndTime) throws IOException {
+        MultiVDataFileReader mvfr = new MultiVDataFileReader(reader);
+        List<MultiVswIndexInfo> infos = mvfr.readIndexOnly();
+
+        List<MultiVswSplit> splits = new ArrayList<>();
+        List<MultiVswIndexInfo> current = new ArrayList<>();
+        List<Long> currentPositions = new ArrayList<>();
+        long currentBytes = 0L;
+        long position = mvfr.getDataOffset();
+        for (MultiVswIndexInfo info : infos) {
+            long infoPosition = position;
+            position += info.getLength();
+            if (deviceId != null && !deviceId.isEmpty() && !deviceId.equals(info.getDeviceIdStr())) {
+                continue;
+            }
+            if (!info.intersects(queryStartTime, queryEndTime)) {
+                continue;
+            }
+
+            if (!current.isEmpty() && currentBytes + info.getLength() > targetSplitBytes) {
+                splits.add(toSplit(path, current, currentPositions));
+                current.clear();
+                currentPositions.clear();
+                currentBytes = 0L;
+            }
+            current.add(info);
+            currentPositions.add(infoPosition);
+            currentBytes += info.getLength();
+        }
+        if (!current.isEmpty()) {
+            splits.add(toSplit(path, current, currentPositions));
+        }
+        return splits;
+    }
+
+    private static MultiVswSplit toSplit(String path, List<MultiVswIndexInfo> infos, List<Long> positions) {
+        int n = infos.size();
+        String[] deviceIds = new String[n];
+        long[] startTimes = new long[n];
+        long[] endTimes = new long[n];
+        long[] starts = new long[n];
+        int[] lengths = new int[n];
+        for (int i = 0; i < n; i++) {
+            MultiVswIndexInfo info = infos.get(i);
+            deviceIds[i] = info.getDeviceIdStr();
+            startTimes[i] = info.getQueryStartTime();
+            endTimes[i] = info.getQueryEndTime();
+            starts[i] = positions.get(i);
+            lengths[i] = info.getLength();
+        }
+        return new MultiVswSplit(path, deviceIds, startTimes, endTimes, starts, lengths);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+import com.exceeddata.sdk.vdata.binary.LittleEndianSeekableBytesReader;
+import com.exceeddata.sdk.vdata.data.VDataReader;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the vsw entries of one {@link MultiVswSplit} as device id -> VDataReader.
+ * Each entry is read positionally from the container, and the signal projection and time window are pushed down into the VDataReader.
+ */
+public class MultiVswSplitReader implements Iterator<Map.Entry<String, VDataReader>> {
+    private final MultiVswSplit split;
+    private final BinarySeekableReader reader;
+    private final List<String> signals;
+    private final long queryStartTime;
+    private final long queryEndTime;
+    private int entry = 0;
+
+    /**
+     * @param split the split
+     * @param reader a reader of the container
+     * @param signals the signals to read, or null for all
+     * @param queryStartTime the query start time
+     * @param queryEndTime the query end time
+     */
+    public MultiVswSplitReader(MultiVswSplit split, BinarySeekableReader reader, List<String> signals, long queryStartTime, long queryEndTime) {
+        this.split = split;
+        this.reader = reader;
+        this.signals = signals;
+        this.queryStartTime = queryStartTime;
+        this.queryEndTime = queryEndTime;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return entry < split.getEntryCount();
+    }
+
+    @Override
+    public Map.Entry<String, VDataReader> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int i = entry++;
+        try {
+            reader.seek(split.getPosition(i));
+            BinarySeekableReader vsw = reader instanceof ByteBufferSeekableReader
+                    ? new ByteBufferSeekableReader(((ByteBufferSeekableReader) reader).slice(split.getLength(i)))
+                    : new LittleEndianSeekableBytesReader(reader.readBytes(split.getLength(i)));
+            List<BinarySeekableReader> readers = new ArrayList<>(1);
+            readers.add(vsw);
+            boolean queryFilter = queryStartTime > 0 || queryEndTime < Long.MAX_VALUE;
+            VDataReader vreader = new VDataReader(readers, signals, false, true, queryFilter, queryStartTime, queryEndTime, false);
+            return new AbstractMap.SimpleImmutableEntry<>(split.getDeviceId(i), vreader);
+        } catch (IOException e) {
+            throw new RuntimeException("Exception while open vdata reader for " + split + " entry " + i, e);
+        }
+    }
+}
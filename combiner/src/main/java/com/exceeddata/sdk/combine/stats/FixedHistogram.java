@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.stats;
+
+import java.io.Serializable;
+
+/**
+ * Mergeable histogram of equal-width bins over a fixed range, with underflow and overflow counts.
+ */
+public class FixedHistogram implements Serializable {
+    private static final long serialVersionUID = 6651329018462247741L;
+
+    private final double min;
+    private final double max;
+    private final long[] counts;
+    private final double scale;
+    private long underflow = 0;
+    private long overflow = 0;
+
+    /**
+     * @param min the lower bound, inclusive
+     * @param max the upper bound, exclusive
+     * @param bins the number of bins
+     */
+    public FixedHistogram(double min, double max, int bins) {
+        if (!(max > min) || bins <= 0) {
+            throw new IllegalArgumentException("invalid histogram range or bins: [" + min + ", " + max + "), " + bins);
+        }
+        this.min = min;
+        this.max = max;
+        this.counts = new long[bins];
+        this.scale = bins / (max - min);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value < min) {
+            underflow++;
+        } else if (value >= max) {
+            overflow++;
+        } else {
+            counts[Math.min(counts.length - 1, (int) ((value - min) * scale))]++;
+        }
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public int getBins() {
+        return counts.length;
+    }
+
+    public long getCount(int bin) {
+        return counts[bin];
+    }
+
+    public long getUnderflow() {
+        return underflow;
+    }
+
+    public long getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Merge another histogram of the same range and bins into this one.
+     * @param other the other histogram
+     */
+    public void merge(FixedHistogram other) {
+        if (other.min != min || other.max != max || other.counts.length != counts.length) {
+            throw new IllegalArgumentException("cannot merge histograms of different range or bins");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        underflow += other.underflow;
+        overflow += other.overflow;
+    }
+
+    /**
+     * @return an empty histogram of the same range and bins
+     */
+    public FixedHistogram emptyCopy() {
+        return new FixedHistogram(min, max, counts.length);
+    }
+}
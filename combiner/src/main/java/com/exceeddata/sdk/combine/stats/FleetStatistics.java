@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.stats;
+
+import com.exceeddata.sdk.combine.data.FileChannelSeekableReader;
+import com.exceeddata.sdk.combine.data.MultiVswSplit;
+import com.exceeddata.sdk.combine.data.MultiVswSplitPlanner;
+import com.exceeddata.sdk.combine.data.MultiVswSplitReader;
+import com.exceeddata.sdk.vdata.data.VDataReader;
+import com.exceeddata.sdk.vdata.series.VDataSeries;
+import com.exceeddata.sdk.vdata.series.VDataSeriesPair;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-signal statistics over the vsw entries of mvsw containers, folded per device and merged into fleet totals.
+ * Containers are read through their index in splits, entries are decoded in parallel with a bounded number of splits
+ * in flight, and each entry is folded into its own partial before merging,
+ * so memory is bounded by the sketches, the container index and the entries being decoded.
+ */
+public class FleetStatistics {
+    /** The default target bytes of container splits. */
+    public static final long DEFAULT_SPLIT_BYTES = 64L * 1024 * 1024;
+
+    private final double relativeAccuracy;
+    private final int hllPrecision;
+    private final FixedHistogram histogram;
+    private final boolean keepDevices;
+    private final Map<String, SignalStats> fleet = new TreeMap<>();
+    private final Map<String, Map<String, SignalStats>> devices = new TreeMap<>();
+
+    public FleetStatistics() {
+        this(0.01, 12, null, true);
+    }
+
+    /**
+     * @param relativeAccuracy the relative accuracy of quantiles
+     * @param hllPrecision the precision of distinct count estimates
+     * @param histogram the histogram range and bins to fill per signal, or null for none
+     * @param keepDevices whether to keep the per-device statistics, or only the fleet totals
+     */
+    public FleetStatistics(double relativeAccuracy, int hllPrecision, FixedHistogram histogram, boolean keepDevices) {
+        this.relativeAccuracy = relativeAccuracy;
+        this.hllPrecision = hllPrecision;
+        this.histogram = histogram;
+        this.keepDevices = keepDevices;
+    }
+
+    /**
+     * Fold the vsw entries of a container file.
+     * @param path the container path
+     * @param signals the signals, or null for all
+     * @param threads the number of decoding threads
+     * @throws IOException on exception
+     */
+    public void add(String path, List<String> signals, int threads) throws IOException {
+        add(path, signals, threads, DEFAULT_SPLIT_BYTES);
+    }
+
+    /**
+     * Fold the vsw entries of a container file.
+     * Only the container index is read up front. The entries are planned into splits, and each split is read positionally
+     * one entry at a time, with at most two splits per thread in flight.
+     * @param path the container path
+     * @param signals the signals, or null for all
+     * @param threads the number of decoding threads
+     * @param targetSplitBytes the target bytes per split
+     * @throws IOException on exception
+     */
+    public void add(String path, final List<String> signals, int threads, long targetSplitBytes) throws IOException {
+        threads = Math.max(1, threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            List<MultiVswSplit> splits = MultiVswSplitPlanner.plan(path, new FileChannelSeekableReader(channel), targetSplitBytes);
+            ExecutorCompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+            int submitted = 0;
+            int completed = 0;
+            for (final MultiVswSplit split : splits) {
+                if (submitted - completed >= threads * 2) {
+                    await(completion);
+                    completed++;
+                }
+                completion.submit(() -> {
+                    MultiVswSplitReader entries = new MultiVswSplitReader(split, new FileChannelSeekableReader(channel), signals, 0L, Long.MAX_VALUE);
+                    while (entries.hasNext()) {
+                        Map.Entry<String, VDataReader> entry = entries.next();
+                        VDataReader reader = entry.getValue();
+                        try {
+                            merge(entry.getKey(), fold(reader));
+                        } finally {
+                            reader.close();
+                        }
+                    }
+                    return null;
+                });
+                submitted++;
+            }
+            while (completed < submitted) {
+                await(completion);
+                completed++;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(ExecutorCompletionService<Void> completion) throws IOException {
+        try {
+            completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException("Exception while decoding vsw", e.getCause());
+        }
+    }
+
+    /**
+     * Fold the numeric values of a reader into new per-signal statistics.
+     * @param reader the reader
+     * @return signal name -> statistics
+     * @throws IOException on exception
+     */
+    public Map<String, SignalStats> fold(VDataReader reader) throws IOException {
+        Map<String, SignalStats> stats = new HashMap<>();
+        for (VDataSeries series : reader.df().series()) {
+            SignalStats s = null;
+            Iterator<VDataSeriesPair> it = series.iterator();
+            while (it.hasNext()) {
+                Object value = it.next().getValue();
+                double d;
+                if (value instanceof Number) {
+                    d = ((Number) value).doubleValue();
+                } else if (value instanceof Boolean) {
+                    d = ((Boolean) value) ? 1d : 0d;
+                } else {
+                    continue;
+                }
+                if (s == null) {
+                    s = newStats();
+                    stats.put(series.name(), s);
+                }
+                s.add(d);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Merge per-signal statistics of a device.
+     * @param deviceId the device id
+     * @param partial signal name -> statistics
+     */
+    public synchronized void merge(String deviceId, Map<String, SignalStats> partial) {
+        for (Map.Entry<String, SignalStats> e : partial.entrySet()) {
+            mergeInto(fleet, e.getKey(), e.getValue());
+            if (keepDevices) {
+                Map<String, SignalStats> device = devices.get(deviceId);
+                if (device == null) {
+                    device = new TreeMap<>();
+                    devices.put(deviceId, device);
+                }
+                mergeInto(device, e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    private void mergeInto(Map<String, SignalStats> target, String name, SignalStats stats) {
+        SignalStats s = target.get(name);
+        if (s == null) {
+            s = newStats();
+            target.put(name, s);
+        }
+        s.merge(stats);
+    }
+
+    private SignalStats newStats() {
+        return new SignalStats(relativeAccuracy, hllPrecision, histogram != null ? histogram.emptyCopy() : null);
+    }
+
+    /**
+     * @return a copy of signal name -> fleet statistics, taken under the lock and unmodifiable
+     */
+    public synchronized Map<String, SignalStats> getFleet() {
+        return copy(fleet);
+    }
+
+    /**
+     * @return a copy of device id -> signal name -> statistics, taken under the lock and unmodifiable,
+     * empty if devices are not kept
+     */
+    public synchronized Map<String, Map<String, SignalStats>> getDevices() {
+        Map<String, Map<String, SignalStats>> copy = new TreeMap<>();
+        for (Map.Entry<String, Map<String, SignalStats>> e : devices.entrySet()) {
+            copy.put(e.getKey(), copy(e.getValue()));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private Map<String, SignalStats> copy(Map<String, SignalStats> stats) {
+        Map<String, SignalStats> copy = new TreeMap<>();
+        for (Map.Entry<String, SignalStats> e : stats.entrySet()) {
+            mergeInto(copy, e.getKey(), e.getValue());
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+}
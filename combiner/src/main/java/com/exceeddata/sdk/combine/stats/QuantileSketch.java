@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.stats;
+
+import java.io.Serializable;
+
+/**
+ * Mergeable quantile sketch with relative accuracy, using logarithmic buckets (the DDSketch scheme).
+ * A quantile estimate is within the relative accuracy of the true value. Memory is bounded by the number of buckets:
+ * when the bucket count exceeds the limit, the lowest buckets are collapsed, which keeps the upper quantiles accurate.
+ */
+public class QuantileSketch implements Serializable {
+    private static final long serialVersionUID = 2915372014592372513L;
+
+    private final double relativeAccuracy;
+    private final int maxBuckets;
+    private final double gamma;
+    private final double logGamma;
+    private final Store positive;
+    private final Store negative;
+    private long zeroCount = 0;
+
+    public QuantileSketch() {
+        this(0.01, 2048);
+    }
+
+    /**
+     * @param relativeAccuracy the relative accuracy, between 0 and 1
+     * @param maxBuckets the maximum buckets per sign
+     */
+    public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relative accuracy must be between 0 and 1: " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBuckets = maxBuckets;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.positive = new Store(maxBuckets);
+        this.negative = new Store(maxBuckets);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > Double.MIN_NORMAL) {
+            positive.add(key(value), 1);
+        } else if (value < -Double.MIN_NORMAL) {
+            negative.add(key(-value), 1);
+        } else {
+            zeroCount++;
+        }
+    }
+
+    public long getCount() {
+        return positive.total + negative.total + zeroCount;
+    }
+
+    /**
+     * @param q the quantile, between 0 and 1
+     * @return the estimated value, or NaN if empty
+     */
+    public double getQuantile(double q) {
+        long count = getCount();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (Math.max(0, Math.min(1, q)) * (count - 1));
+        if (rank < negative.total) {
+            //negative buckets are walked from the largest magnitude down
+            return -value(negative.keyAtReverseRank(rank));
+        }
+        rank -= negative.total;
+        if (rank < zeroCount) {
+            return 0d;
+        }
+        return value(positive.keyAtRank(rank - zeroCount));
+    }
+
+    /**
+     * Merge another sketch of the same relative accuracy into this one.
+     * @param other the other sketch
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("cannot merge sketches of different accuracy");
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+    }
+
+    private int key(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int key) {
+        return 2 * Math.pow(gamma, key) / (gamma + 1);
+    }
+
+    /**
+     * Dense bucket counts over a sliding key range.
+     */
+    private static class Store implements Serializable {
+        private static final long serialVersionUID = -4419328436203218839L;
+
+        private final int maxBuckets;
+        private long[] counts = new long[0];
+        private int offset = 0;
+        private long total = 0;
+
+        Store(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        void add(int key, long count) {
+            if (counts.length == 0) {
+                counts = new long[64];
+                offset = key - 32;
+            }
+            if (key >= offset + counts.length || (key < offset && counts.length < maxBuckets)) {
+                extend(key);
+            }
+            counts[Math.max(0, key - offset)] += count;
+            total += count;
+        }
+
+        private void extend(int key) {
+            int lo = Math.min(key, offset);
+            int hi = Math.max(key, offset + counts.length - 1);
+            int size = hi - lo + 1;
+            if (size > maxBuckets) {
+                //collapse the lowest keys into the lowest bucket kept
+                int newLo = hi - maxBuckets + 1;
+                long[] grown = new long[maxBuckets];
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] != 0) {
+                        grown[Math.max(0, offset + i - newLo)] += counts[i];
+                    }
+                }
+                counts = grown;
+                offset = newLo;
+                return;
+            }
+            int capacity = Math.min(maxBuckets, Math.max(size, counts.length * 2));
+            int newLo = key < offset ? hi - capacity + 1 : lo;
+            long[] grown = new long[capacity];
+            System.arraycopy(counts, 0, grown, offset - newLo, counts.length);
+            counts = grown;
+            offset = newLo;
+        }
+
+        void merge(Store other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        int keyAtRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        int keyAtReverseRank(long rank) {
+            long seen = 0;
+            for (int i = counts.length - 1; i >= 0; i--) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.stats;
+
+import java.io.Serializable;
+
+/**
+ * Mergeable statistics of one numeric signal: count, sum, min, max, quantile sketch, distinct count estimate and an optional histogram.
+ * Memory is bounded by the sketch sizes, not by the number of values.
+ */
+public class SignalStats implements Serializable {
+    private static final long serialVersionUID = 8203374128846213950L;
+
+    private long count = 0;
+    private double sum = 0d;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final QuantileSketch quantiles;
+    private final HyperLogLog distinct;
+    private final FixedHistogram histogram;
+
+    public SignalStats() {
+        this(0.01, 12, null);
+    }
+
+    /**
+     * @param relativeAccuracy the relative accuracy of quantiles
+     * @param hllPrecision the precision of the distinct count estimate
+     * @param histogram an empty histogram to fill, or null for none
+     */
+    public SignalStats(double relativeAccuracy, int hllPrecision, FixedHistogram histogram) {
+        this.quantiles = new QuantileSketch(relativeAccuracy, 2048);
+        this.distinct = new HyperLogLog(hllPrecision);
+        this.histogram = histogram;
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        quantiles.add(value);
+        distinct.add(value);
+        if (histogram != null) {
+            histogram.add(value);
+        }
+    }
+
+    /**
+     * Merge other statistics of the same configuration into this one.
+     * @param other the other statistics
+     */
+    public void merge(SignalStats other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        quantiles.merge(other.quantiles);
+        distinct.merge(other.distinct);
+        if (histogram != null && other.histogram != null) {
+            histogram.merge(other.histogram);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public double getQuantile(double q) {
+        return quantiles.getQuantile(q);
+    }
+
+    public long getDistinct() {
+        return distinct.getEstimate();
+    }
+
+    public FixedHistogram getHistogram() {
+        return histogram;
+    }
+
+    public String toString() {
+        return String.format("count=%d min=%s max=%s mean=%s p50=%s p95=%s p99=%s distinct=%d",
+                count, getMin(), getMax(), getMean(), getQuantile(0.5), getQuantile(0.95), getQuantile(0.99), getDistinct());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+import com.exceeddata.sdk.vdata.binary.LittleEndianSeekableBytesReader;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MultiVDataFileReaderTest {
+
+    /**
+     * Build an in-memory mvsw container from index infos.
+     */
+    static byte[] container(List<MultiVswIndexInfo> infos, int indexInfoSize) {
+        int total = 32;
+        for (MultiVswIndexInfo info : infos) {
+            total += info.getIndexLength() + info.getLength();
+        }
+        ByteBuffer buf = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put((byte) 'M').put((byte) 'D').put((byte) 10).put((byte) 0);
+        buf.putInt(infos.size());
+        buf.putInt(indexInfoSize);
+        buf.putLong(0L);
+        buf.putLong(Long.MAX_VALUE);
+        buf.putShort((short) 0);
+        buf.position(32);
+        for (MultiVswIndexInfo info : infos) {
+            buf.put(info.getIndexInfo());
+        }
+        for (MultiVswIndexInfo info : infos) {
+            buf.put(info.getVsw());
+        }
+        return buf.array();
+    }
+
+    static byte[] vsw(int length, int seed) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (seed + i);
+        }
+        return data;
+    }
+
+    @Test
+    public void indexInfoRoundTrip() {
+        byte[] ext = new byte[] {1, 2, 3, 4};
+        MultiVswIndexInfo info = new MultiVswIndexInfo("VINTEST00001", 11L, 22L, 33L, 44, ext, vsw(10, 0));
+        MultiVswIndexInfo decoded = MultiVswIndexInfo.fromBytes(info.getIndexInfo());
+
+        assertEquals("VINTEST00001", decoded.getDeviceIdStr());
+        assertEquals(44, decoded.getOffset());
+        assertEquals(10, decoded.getLength());
+        assertArrayEquals(info.getIndexInfo(), decoded.encode());
+    }
+
+    @Test
+    public void readBufferAndBytesAlike() throws IOException {
+        byte[] ext = new byte[] {9, 8};
+        List<MultiVswIndexInfo> infos = new ArrayList<>();
+        infos.add(new MultiVswIndexInfo("VIN-A", 1L, 100L, 200L, 0, ext, vsw(100, 1)));
+        infos.add(new MultiVswIndexInfo("VIN-B", 2L, 300L, 400L, 100, ext, vsw(37, 7)));
+        byte[] data = container(infos, ext.length);
+
+        MultiVDataFileReader viewed = new MultiVDataFileReader(new ByteBufferSeekableReader(data));
+        viewed.initialize();
+        MultiVDataFileReader copied = new MultiVDataFileReader(new LittleEndianSeekableBytesReader(data));
+        copied.initialize();
+
+        Iterator<MultiVswIndexInfo> vit = viewed.getIterator();
+        Iterator<MultiVswIndexInfo> cit = copied.getIterator();
+        for (MultiVswIndexInfo expected : infos) {
+            MultiVswIndexInfo v = vit.next();
+            MultiVswIndexInfo c = cit.next();
+            assertEquals(expected.getDeviceIdStr(), v.getDeviceIdStr());
+            assertArrayEquals(expected.getVsw(), v.getVsw());
+            assertArrayEquals(expected.getVsw(), c.getVsw());
+
+            BinarySeekableReader reader = v.getVswReader();
+            reader.seek(5);
+            assertArrayEquals(new byte[] {expected.getVsw()[5], expected.getVsw()[6]}, reader.readBytes(2));
+        }
+        assertTrue(!vit.hasNext());
+    }
+}
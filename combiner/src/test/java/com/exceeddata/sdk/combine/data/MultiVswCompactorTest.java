@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MultiVswCompactorTest {
+
+    private static String write(File dir, String name, List<MultiVswIndexInfo> infos) throws IOException {
+        File file = new File(dir, name);
+        Files.write(file.toPath(), MultiVDataFileReaderTest.container(infos, 2));
+        return file.getPath();
+    }
+
+    private static String write(File dir, String name, List<MultiVswIndexInfo> infos, int formatVersion) throws IOException {
+        byte[] data = MultiVDataFileReaderTest.container(infos, 2);
+        data[2] = (byte) formatVersion;
+        File file = new File(dir, name);
+        Files.write(file.toPath(), data);
+        return file.getPath();
+    }
+
+    private static List<MultiVswIndexInfo> read(String path) throws IOException {
+        MultiVDataFileReader reader = new MultiVDataFileReader(new ByteBufferSeekableReader(Files.readAllBytes(new File(path).toPath())));
+        reader.initialize();
+        List<MultiVswIndexInfo> infos = new ArrayList<>();
+        for (Iterator<MultiVswIndexInfo> it = reader.getIterator(); it.hasNext(); ) {
+            infos.add(it.next());
+        }
+        return infos;
+    }
+
+    private static File tempDir() throws IOException {
+        return Files.createTempDirectory("mvsw").toFile();
+    }
+
+    @Test
+    public void sortsAndDropsDuplicates() throws IOException {
+        byte[] ext = new byte[] {1, 2};
+        File dir = tempDir();
+        List<MultiVswIndexInfo> first = new ArrayList<>();
+        first.add(new MultiVswIndexInfo("VIN-B", 1L, 300L, 400L, 0, ext, MultiVDataFileReaderTest.vsw(40, 1)));
+        first.add(new MultiVswIndexInfo("VIN-A", 2L, 500L, 600L, 40, ext, MultiVDataFileReaderTest.vsw(30, 2)));
+        List<MultiVswIndexInfo> second = new ArrayList<>();
+        second.add(new MultiVswIndexInfo("VIN-A", 3L, 100L, 200L, 0, ext, MultiVDataFileReaderTest.vsw(20, 3)));
+        second.add(new MultiVswIndexInfo("VIN-B", 1L, 300L, 400L, 20, ext, MultiVDataFileReaderTest.vsw(40, 1)));
+        String output = new File(dir, "out.mvsw").getPath();
+
+        MultiVswCompactor.Result result = new MultiVswCompactor().setThreads(2)
+                .compact(Arrays.asList(write(dir, "a.mvsw", first), write(dir, "b.mvsw", second)), output);
+        assertEquals(4, result.getInputEntries());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(Arrays.asList(output), result.getOutputs());
+
+        List<MultiVswIndexInfo> infos = read(output);
+        assertEquals(3, infos.size());
+        assertEquals("VIN-A", infos.get(0).getDeviceIdStr());
+        assertEquals(100L, infos.get(0).getQueryStartTime());
+        assertArrayEquals(second.get(0).getVsw(), infos.get(0).getVsw());
+        assertEquals("VIN-A", infos.get(1).getDeviceIdStr());
+        assertEquals(500L, infos.get(1).getQueryStartTime());
+        assertArrayEquals(first.get(1).getVsw(), infos.get(1).getVsw());
+        assertEquals("VIN-B", infos.get(2).getDeviceIdStr());
+        assertArrayEquals(first.get(0).getVsw(), infos.get(2).getVsw());
+        assertEquals(20, infos.get(1).getOffset());
+        assertArrayEquals(ext, infos.get(2).extendInfo);
+    }
+
+    @Test
+    public void keepsSameVswOfDifferentDevices() throws IOException {
+        byte[] ext = new byte[] {1, 2};
+        File dir = tempDir();
+        List<MultiVswIndexInfo> first = new ArrayList<>();
+        first.add(new MultiVswIndexInfo("VIN-A", 1L, 100L, 200L, 0, ext, MultiVDataFileReaderTest.vsw(16, 5)));
+        List<MultiVswIndexInfo> second = new ArrayList<>();
+        second.add(new MultiVswIndexInfo("VIN-B", 1L, 100L, 200L, 0, ext, MultiVDataFileReaderTest.vsw(16, 5)));
+        second.add(new MultiVswIndexInfo("VIN-A", 1L, 100L, 200L, 16, ext, MultiVDataFileReaderTest.vsw(16, 5)));
+        String output = new File(dir, "out.mvsw").getPath();
+
+        MultiVswCompactor.Result result = new MultiVswCompactor()
+                .compact(Arrays.asList(write(dir, "a.mvsw", first), write(dir, "b.mvsw", second)), output);
+        assertEquals(3, result.getInputEntries());
+        assertEquals(1, result.getDuplicates());
+
+        List<MultiVswIndexInfo> infos = read(output);
+        assertEquals(2, infos.size());
+        assertEquals("VIN-A", infos.get(0).getDeviceIdStr());
+        assertEquals("VIN-B", infos.get(1).getDeviceIdStr());
+        assertArrayEquals(infos.get(0).getVsw(), infos.get(1).getVsw());
+    }
+
+    @Test
+    public void writesUnsetHeaderTimesWithoutQueryTimes() throws IOException {
+        byte[] ext = new byte[] {1, 2};
+        File dir = tempDir();
+        List<MultiVswIndexInfo> entries = new ArrayList<>();
+        entries.add(new MultiVswIndexInfo("VIN-A", 1L, 0L, 0L, 0, ext, MultiVDataFileReaderTest.vsw(8, 1)));
+        String output = new File(dir, "out.mvsw").getPath();
+
+        new MultiVswCompactor().compact(Arrays.asList(write(dir, "a.mvsw", entries)), output);
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(new File(output).toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0L, header.getLong(12));
+        assertEquals(0L, header.getLong(20));
+        assertEquals(1, read(output).size());
+    }
+
+    @Test
+    public void partitionsByTime() throws IOException {
+        byte[] ext = new byte[] {1, 2};
+        File dir = tempDir();
+        List<MultiVswIndexInfo> entries = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            entries.add(new MultiVswIndexInfo("VIN-" + (i % 2), i, 1000L - i * 100L, 1050L - i * 100L, 0, ext, MultiVDataFileReaderTest.vsw(10 + i, i)));
+        }
+        String output = new File(dir, "out.mvsw").getPath();
+
+        MultiVswCompactor.Result result = new MultiVswCompactor().setPartitions(3).setPartition(MultiVswCompactor.Partition.TIME)
+                .compact(Arrays.asList(write(dir, "a.mvsw", entries)), output);
+        assertEquals(3, result.getOutputs().size());
+        assertTrue(result.getOutputs().get(0).endsWith("out-0.mvsw"));
+
+        long previousEnd = Long.MIN_VALUE;
+        for (String path : result.getOutputs()) {
+            List<MultiVswIndexInfo> infos = read(path);
+            assertEquals(2, infos.size());
+            long start = Long.MAX_VALUE;
+            long end = Long.MIN_VALUE;
+            for (MultiVswIndexInfo info : infos) {
+                start = Math.min(start, info.getQueryStartTime());
+                end = Math.max(end, info.getQueryStartTime());
+            }
+            assertTrue(start > previousEnd);
+            previousEnd = end;
+        }
+    }
+
+    @Test
+    public void keepsFormatVersionAndRejectsMismatch() throws IOException {
+        byte[] ext = new byte[] {1, 2};
+        File dir = tempDir();
+        List<MultiVswIndexInfo> first = new ArrayList<>();
+        first.add(new MultiVswIndexInfo("VIN-A", 1L, 100L, 200L, 0, ext, MultiVDataFileReaderTest.vsw(10, 1)));
+        List<MultiVswIndexInfo> second = new ArrayList<>();
+        second.add(new MultiVswIndexInfo("VIN-B", 2L, 300L, 400L, 0, ext, MultiVDataFileReaderTest.vsw(12, 2)));
+        String output = new File(dir, "out.mvsw").getPath();
+
+        new MultiVswCompactor().compact(Arrays.asList(write(dir, "a.mvsw", first, 11), write(dir, "b.mvsw", second, 11)), output);
+        assertEquals(11, Files.readAllBytes(new File(output).toPath())[2]);
+
+        try {
+            new MultiVswCompactor().compact(Arrays.asList(write(dir, "a.mvsw", first, 11), write(dir, "b.mvsw", second, 10)), output);
+            fail("format version mismatch not rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Format version mismatch"));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.data;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MultiVswSplitPlannerTest {
+
+    private static List<MultiVswIndexInfo> infos() {
+        byte[] ext = new byte[] {5, 6, 7};
+        List<MultiVswIndexInfo> infos = new ArrayList<>();
+        infos.add(new MultiVswIndexInfo("VIN-A", 1L, 100L, 200L, 0, ext, MultiVDataFileReaderTest.vsw(100, 1)));
+        infos.add(new MultiVswIndexInfo("VIN-B", 2L, 300L, 400L, 100, ext, MultiVDataFileReaderTest.vsw(60, 2)));
+        infos.add(new MultiVswIndexInfo("VIN-A", 3L, 500L, 600L, 160, ext, MultiVDataFileReaderTest.vsw(50, 3)));
+        infos.add(new MultiVswIndexInfo("VIN-C", 4L, 700L, 800L, 210, ext, MultiVDataFileReaderTest.vsw(30, 4)));
+        return infos;
+    }
+
+    @Test
+    public void splitsAtEntryBoundaries() throws IOException {
+        List<MultiVswIndexInfo> infos = infos();
+        byte[] data = MultiVDataFileReaderTest.container(infos, 3);
+
+        List<MultiVswSplit> splits = MultiVswSplitPlanner.plan("test.mvsw", new ByteBufferSeekableReader(data), 120);
+        assertEquals(3, splits.size());
+        assertEquals(1, splits.get(0).getEntryCount());
+        assertEquals(2, splits.get(1).getEntryCount());
+        assertEquals(1, splits.get(2).getEntryCount());
+
+        int i = 0;
+        for (MultiVswSplit split : splits) {
+            for (int e = 0; e < split.getEntryCount(); e++, i++) {
+                MultiVswIndexInfo expected = infos.get(i);
+                assertEquals(expected.getDeviceIdStr(), split.getDeviceId(e));
+                int pos = (int) split.getPosition(e);
+                assertArrayEquals(expected.getVsw(), Arrays.copyOfRange(data, pos, pos + split.getLength(e)));
+            }
+        }
+        assertEquals(infos.size(), i);
+        assertEquals(110, splits.get(1).getLength());
+    }
+
+    @Test
+    public void filtersDeviceAndTimeWindow() throws IOException {
+        List<MultiVswIndexInfo> infos = infos();
+        byte[] data = MultiVDataFileReaderTest.container(infos, 3);
+
+        List<MultiVswSplit> splits = MultiVswSplitPlanner.plan("test.mvsw", new ByteBufferSeekableReader(data), Long.MAX_VALUE, "VIN-A", 0L, Long.MAX_VALUE);
+        assertEquals(1, splits.size());
+        assertEquals(2, splits.get(0).getEntryCount());
+        assertEquals(500L, splits.get(0).getStartTime(1));
+
+        splits = MultiVswSplitPlanner.plan("test.mvsw", new ByteBufferSeekableReader(data), Long.MAX_VALUE, null, 350L, 550L);
+        assertEquals(1, splits.size());
+        assertEquals("VIN-B", splits.get(0).getDeviceId(0));
+        assertEquals("VIN-A", splits.get(0).getDeviceId(1));
+    }
+
+    @Test
+    public void plansOverFileChannel() throws IOException {
+        byte[] data = MultiVDataFileReaderTest.container(infos(), 3);
+        File file = File.createTempFile("split", ".mvsw");
+        file.deleteOnExit();
+        Files.write(file.toPath(), data);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<MultiVswSplit> splits = MultiVswSplitPlanner.plan(file.getPath(), new FileChannelSeekableReader(channel), 120);
+            assertEquals(3, splits.size());
+            FileChannelSeekableReader reader = new FileChannelSeekableReader(channel);
+            MultiVswSplit split = splits.get(1);
+            reader.seek(split.getPosition(1));
+            assertArrayEquals(infos().get(2).getVsw(), reader.readBytes(split.getLength(1)));
+        }
+    }
+}
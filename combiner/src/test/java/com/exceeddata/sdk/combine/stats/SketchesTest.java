@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use
+ * or other dealings in this Software without prior written authorization
+ * of the copyright holder.
+ */
+package com.exceeddata.sdk.combine.stats;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SketchesTest {
+
+    @Test
+    public void quantilesWithinRelativeAccuracy() {
+        Random random = new Random(7);
+        double[] values = new double[100000];
+        QuantileSketch sketch = new QuantileSketch(0.01, 2048);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 3) * (random.nextInt(10) == 0 ? -1 : 1);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[] {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99}) {
+            double expected = values[(int) (q * (values.length - 1))];
+            double actual = sketch.getQuantile(q);
+            assertTrue(q + ": " + expected + " vs " + actual, Math.abs(actual - expected) <= 0.0101 * Math.abs(expected));
+        }
+        assertEquals(values.length, sketch.getCount());
+    }
+
+    @Test
+    public void quantilesMergeLikeOneSketch() {
+        QuantileSketch a = new QuantileSketch(), b = new QuantileSketch(), all = new QuantileSketch();
+        for (int i = 1; i <= 10000; i++) {
+            (i % 3 == 0 ? a : b).add(i);
+            all.add(i);
+        }
+        a.merge(b);
+        for (double q : new double[] {0.1, 0.5, 0.9}) {
+            assertEquals(all.getQuantile(q), a.getQuantile(q), 0d);
+        }
+    }
+
+    @Test
+    public void boundedBucketsKeepUpperQuantiles() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 64);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(1000 + i);
+        }
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(1e-6 * i);
+        }
+        assertEquals(2000, sketch.getCount());
+        assertTrue(Math.abs(sketch.getQuantile(0.99) - 1980) <= 0.0101 * 1980);
+    }
+
+    @Test
+    public void distinctCountWithinError() {
+        HyperLogLog a = new HyperLogLog(12), b = new HyperLogLog(12);
+        for (int i = 0; i < 60000; i++) {
+            a.add((double) i);
+            b.add((double) (i + 40000));
+        }
+        assertTrue(Math.abs(a.getEstimate() - 60000) < 60000 * 0.05);
+        a.merge(b);
+        assertTrue(Math.abs(a.getEstimate() - 100000) < 100000 * 0.05);
+
+        HyperLogLog small = new HyperLogLog();
+        for (int i = 0; i < 1000; i++) {
+            small.add(i % 10);
+        }
+        assertEquals(10, small.getEstimate());
+    }
+
+    @Test
+    public void histogramMerge() {
+        FixedHistogram a = new FixedHistogram(0, 10, 5);
+        FixedHistogram b = a.emptyCopy();
+        a.add(-1);
+        a.add(0);
+        a.add(3.9);
+        b.add(9.99);
+        b.add(10);
+        a.merge(b);
+        assertEquals(1, a.getUnderflow());
+        assertEquals(1, a.getOverflow());
+        assertEquals(1, a.getCount(0));
+        assertEquals(1, a.getCount(1));
+        assertEquals(1, a.getCount(4));
+    }
+
+    @Test
+    public void signalStatsMerge() {
+        SignalStats a = new SignalStats(), b = new SignalStats();
+        a.add(1);
+        a.add(Double.NaN);
+        b.add(-3);
+        b.add(5);
+        a.merge(b);
+        assertEquals(3, a.getCount());
+        assertEquals(-3d, a.getMin(), 0d);
+        assertEquals(5d, a.getMax(), 0d);
+        assertEquals(1d, a.getMean(), 1e-12);
+        assertEquals(3, a.getDistinct());
+    }
+
+    @Test
+    public void fleetStatisticsReturnsSnapshots() {
+        FleetStatistics stats = new FleetStatistics();
+        SignalStats speed = new SignalStats();
+        speed.add(10);
+        stats.merge("device1", Collections.singletonMap("speed", speed));
+
+        Map<String, SignalStats> fleet = stats.getFleet();
+        Map<String, Map<String, SignalStats>> devices = stats.getDevices();
+        stats.merge("device1", Collections.singletonMap("speed", speed));
+        stats.merge("device2", Collections.singletonMap("speed", speed));
+        assertEquals(1, fleet.get("speed").getCount());
+        assertEquals(1, devices.get("device1").get("speed").getCount());
+        assertEquals(1, devices.size());
+        assertEquals(3, stats.getFleet().get("speed").getCount());
+        assertEquals(2, stats.getDevices().get("device1").get("speed").getCount());
+
+        try {
+            devices.get("device1").clear();
+            fail("device statistics must be unmodifiable");
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+    }
+}
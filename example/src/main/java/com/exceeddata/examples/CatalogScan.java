@@ -0,0 +1,155 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.exceeddata.examples.utils.ApplicationUtils;
+import com.exceeddata.examples.utils.CatalogRecord;
+import com.exceeddata.examples.utils.VswCatalog;
+
+/**
+ * 
+ * Project: Build a metadata catalog of vsw files by scanning only the file headers in parallel.
+ * Usage:   java -cp vdata-sdk-java-examples.jar com.exceeddata.examples.CatalogScan -i input_dir -o output_path [...optional parameters]
+ *
+ */
+public class CatalogScan {
+    
+    private static void printUsage() {
+        System.out.println("java -cp vdata-sdk-java-examples.jar com.exceeddata.examples.CatalogScan -i inputDir -o outputPath");
+        System.out.println("     [-i|input <path>]. Required. The input directory, scanned recursively, or a single vsw file.");
+        System.out.println("     [-o|output <path>]. Required. The output CSV catalog path.");
+        System.out.println("     [-b|base64 <true|false>]. Optional. Whether the input files are base64 encoded. Default is false.");
+        System.out.println("     [-n|threads <#>]. Optional. The number of scanning threads. Default is 2 x available processors.");
+        System.out.println("     [-h|help]. optional)");
+        System.out.println("");
+    }
+    
+    /**
+     * The main entry method.
+     * 
+     * @param args the arguments
+     * @throws Exception if exception occurs
+     */
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> configs = new HashMap<>();
+        if (ApplicationUtils.parseArguments(args, configs) < 0) {
+            printUsage();
+            return;
+        }
+        
+        final String inputPath = ApplicationUtils.get(configs, "-i", "");
+        final String outputPath = ApplicationUtils.get(configs, "-o", "");
+        final boolean base64Encoded = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-b", null), false);
+        final int threads = ApplicationUtils.parseInt(ApplicationUtils.get(configs, "-n", null), 2 * Runtime.getRuntime().availableProcessors());
+        
+        if (inputPath.length() == 0) {
+            System.out.println("Error: input path parameter empty");
+            return;
+        }
+        if (outputPath.length() == 0) {
+            System.out.println("Error: output path parameter empty");
+            return;
+        }
+        final Path input = Paths.get(inputPath);
+        if (!Files.exists(input)) {
+            System.err.println("Error: input path not exist: " + input);
+            return;
+        }
+        
+        final long start = System.currentTimeMillis();
+        final int count;
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(outputPath), StandardCharsets.UTF_8)) {
+            writer.write("path,bytes,version,compress,encryption,blocks,start_time,end_time,signals,names,descs\n");
+            final StringBuilder sb = new StringBuilder(4096);
+            count = VswCatalog.scanDirectory(input, base64Encoded, threads, record -> {
+                try {
+                    writer.write(toCsv(record, sb));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        final long end = System.currentTimeMillis();
+        System.out.println("Files: " + count);
+        System.out.println("took " + (end - start) + " ms");
+    }
+    
+    private static String toCsv(final CatalogRecord record, final StringBuilder sb) {
+        sb.setLength(0);
+        sb.append(quote(record.getPath())).append(',')
+          .append(record.getLength()).append(',')
+          .append(record.getFormatVersion()).append(',')
+          .append(record.getCompressMethod()).append(',')
+          .append(record.getEncryptionMethod()).append(',')
+          .append(record.getBlocksCount()).append(',')
+          .append(record.getStartTime()).append(',')
+          .append(record.getEndTime()).append(',');
+        final String[] names = record.getNames();
+        sb.append(names != null ? names.length : 0).append(',');
+        sb.append(quote(names != null ? String.join(";", names) : "")).append(',');
+        final String[] descs = record.getDescs();
+        if (descs != null) {
+            final StringBuilder joined = new StringBuilder();
+            for (int i = 0; i < descs.length; ++i) {
+                if (i > 0) {
+                    joined.append(';');
+                }
+                if (descs[i] != null) {
+                    joined.append(descs[i]);
+                }
+            }
+            sb.append(quote(joined.toString()));
+        }
+        sb.append('\n');
+        return sb.toString();
+    }
+    
+    private static String quote(final String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
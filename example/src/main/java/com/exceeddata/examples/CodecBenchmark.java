@@ -0,0 +1,150 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.exceeddata.examples.codec.BlockCodec;
+import com.exceeddata.examples.codec.BlockCodecs;
+import com.exceeddata.examples.utils.ApplicationUtils;
+
+/**
+ * 
+ * Project: Compare the block codecs available at runtime on sample data.
+ * Usage:   java -cp vdata-sdk-java-examples.jar com.exceeddata.examples.CodecBenchmark -i input_path [...optional parameters]
+ *
+ */
+public class CodecBenchmark {
+    
+    private static void printUsage() {
+        System.out.println("java -cp vdata-sdk-java-examples.jar com.exceeddata.examples.CodecBenchmark -i inputPath");
+        System.out.println("     [-i|input <paths>]. Required. The sample file path(s). Multiple files are comma separated.");
+        System.out.println("     [-c|codecs <names>]. Optional. Comma-separated codec names. Default is all available codecs.");
+        System.out.println("     [-k|block size <KB>]. Optional. The block size in KB. Default is 256.");
+        System.out.println("     [-n|iterations <#>]. Optional. The measured iterations after one warm-up. Default is 5.");
+        System.out.println("     [-h|help]. optional)");
+        System.out.println("");
+    }
+    
+    /**
+     * The main entry method.
+     * 
+     * @param args the arguments
+     * @throws Exception if exception occurs
+     */
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> configs = new HashMap<>();
+        if (ApplicationUtils.parseArguments(args, configs) < 0) {
+            printUsage();
+            return;
+        }
+        
+        final String inputPath = ApplicationUtils.get(configs, "-i", "");
+        final String codecNames = ApplicationUtils.get(configs, "-c", null);
+        final int blockSize = ApplicationUtils.parseInt(ApplicationUtils.get(configs, "-k", null), 256) * 1024;
+        final int iterations = ApplicationUtils.parseInt(ApplicationUtils.get(configs, "-n", null), 5);
+        
+        if (inputPath.length() == 0) {
+            System.out.println("Error: input path parameter empty");
+            return;
+        }
+        
+        final List<byte[]> blocks = new ArrayList<>();
+        long total = 0;
+        for (final String p : inputPath.split(",")) {
+            final File fp = new File(p.trim());
+            if (!fp.isFile()) {
+                System.err.println("Error: input path not exist: " + fp);
+                continue;
+            }
+            final byte[] data = Files.readAllBytes(fp.toPath());
+            for (int off = 0; off < data.length; off += blockSize) {
+                final byte[] block = new byte[Math.min(blockSize, data.length - off)];
+                System.arraycopy(data, off, block, 0, block.length);
+                blocks.add(block);
+            }
+            total += data.length;
+        }
+        if (total == 0) {
+            System.err.println("Error: no input data: " + inputPath);
+            return;
+        }
+        
+        final List<BlockCodec> codecs = new ArrayList<>();
+        if (codecNames != null) {
+            for (final String name : codecNames.split(",")) {
+                codecs.add(BlockCodecs.get(name.trim()));
+            }
+        } else {
+            codecs.addAll(BlockCodecs.codecs().values());
+        }
+        
+        System.out.println(String.format("%-10s %-40s %8s %12s %12s", "codec", "class", "ratio", "comp MB/s", "decomp MB/s"));
+        for (final BlockCodec codec : codecs) {
+            final byte[][] compressed = new byte[blocks.size()][];
+            final int[] lengths = new int[blocks.size()];
+            final byte[] out = new byte[blockSize];
+            long compNanos = 0, decompNanos = 0, compBytes = 0;
+            for (int it = 0; it <= iterations; ++it) {
+                final long t0 = System.nanoTime();
+                compBytes = 0;
+                for (int b = 0; b < blocks.size(); ++b) {
+                    final byte[] block = blocks.get(b);
+                    if (compressed[b] == null) {
+                        compressed[b] = new byte[codec.maxCompressedLength(block.length)];
+                    }
+                    lengths[b] = codec.compress(block, 0, block.length, compressed[b], 0);
+                    compBytes += lengths[b];
+                }
+                final long t1 = System.nanoTime();
+                for (int b = 0; b < blocks.size(); ++b) {
+                    codec.decompress(compressed[b], 0, lengths[b], out, 0, blocks.get(b).length);
+                }
+                final long t2 = System.nanoTime();
+                if (it > 0) { //first iteration is warm-up
+                    compNanos += t1 - t0;
+                    decompNanos += t2 - t1;
+                }
+            }
+            final double mb = total * (double) iterations / (1024 * 1024);
+            System.out.println(String.format("%-10s %-40s %8.3f %12.1f %12.1f",
+                    codec.name(), codec.getClass().getSimpleName(), total / (double) compBytes,
+                    mb / (compNanos / 1e9), mb / (decompNanos / 1e9)));
+        }
+    }
+}
@@ -35,17 +35,37 @@ package com.exceeddata.examples;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.lang.management.ManagementFactory;
 import java.text.DecimalFormat;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import com.exceeddata.examples.codec.BlockCodecs;
+import com.exceeddata.examples.frame.FrameBinaryWriter;
+import com.exceeddata.examples.jfr.FrameQueryEvent;
+import com.exceeddata.examples.jfr.OutputWriteEvent;
+import com.exceeddata.examples.jfr.ReaderOpenEvent;
+import com.exceeddata.examples.metrics.DecodeListener;
+import com.exceeddata.examples.metrics.DecodeMetrics;
+import com.exceeddata.examples.metrics.DecodeStage;
 import com.exceeddata.examples.utils.ApplicationUtils;
-import com.exceeddata.examples.utils.CsvOutput;
+import com.exceeddata.examples.utils.ChangeOnlyRowWriter;
+import com.exceeddata.examples.utils.CsvRowWriter;
+import com.exceeddata.examples.utils.DecodeEstimate;
+import com.exceeddata.examples.utils.MemoryBudget;
+import com.exceeddata.examples.utils.RowFilter;
+import com.exceeddata.examples.utils.RowPredicate;
+import com.exceeddata.examples.utils.RowWriter;
+import com.exceeddata.examples.utils.StringDictionary;
+import com.exceeddata.examples.utils.VswTimeGroups;
 import com.exceeddata.sdk.vdata.app.LogUtils;
 import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
 import com.exceeddata.sdk.vdata.data.VDataFrame;
@@ -62,6 +82,7 @@ import com.exceeddata.sdk.vdata.util.VDataUtils;
  *
  */
 public class VswDecode {
+    private static final int DICTIONARY_MAX_DISTINCT = 4096;
     
     private static void printUsage() {
         System.out.println("java -cp vdata.jar com.exceeddata.sdk.vdata.app.Trappist inputPath outputPath [signalNames base64Encoded densifyNumRows]");
@@ -69,11 +90,21 @@ public class VswDecode {
         System.out.println("     [-o|output <path>]. Required. The output file path.");
         System.out.println("     [-s|signals <names>]. Optional. Comma-separated list of signal names to extract.");
         System.out.println("     [-b|base64 <true|false>]. Optional. Whether the input file is base64 encoded. Default is false.");
+        System.out.println("     [-a|async <true|false>]. Optional. Whether to read input files positionally with read-ahead instead of loading them into memory. Ignored for base64. Default is false.");
+        System.out.println("     [-g|stream <true|false>]. Optional. Whether to decode multiple input files one time group at a time, merging only files with intersecting time ranges. Default is false.");
         System.out.println("     [-d|densify rows <#>]. Optional. The number of rows to look ahead to fill in for initial null rows.  Default is 0 (no fill in)");
         System.out.println("     [-e|densify interval <ms>]. Optional. Give a new output interval (vary frequency) for dense data. Default is 0 (no interval).");
         System.out.println("     [-m|qmode <last|first|all>]. Optional. The retrieve mode when there are multiple values for a signal at the same time. Default is 'last' (use last value)");
         System.out.println("     [-p|expand <none|flat|full>]. Optional. 'none' is output as columns as stored. 'flat' will extract structs into individual columns. 'full' is extract with qualified name. Default is 'full')");
         System.out.println("     [-x|query method<iterator|objects|object1s>]. Optional. The query method.  Default is objects.)");
+        System.out.println("     [-n|insensitive <true|false>]. Optional. Whether signal and column names are case insensitive. Column names are then lower case, also in the filter. Default is false.");
+        System.out.println("     [-f|filter <expression>]. Optional. Only output rows matching the expression, e.g. \"VehicleSpeed > 120 && Brake == 1\".");
+        System.out.println("     [-c|context <ms>]. Optional. With filter, also output rows within this many milliseconds before and after a match. Default is 0.");
+        System.out.println("     [-u|format <csv|vbin|changes>]. Optional. The output format. 'vbin' is a compact columnar binary format readable by FrameBinaryReader. 'changes' is long format CSV (time,signal,value) of value changes only. Default is 'csv'.");
+        System.out.println("     [-y|codec <none|lz4|zstd|deflate>]. Optional. The block codec for 'vbin' output. Default is 'none'.");
+        System.out.println("     [-k|deadband <tolerance[,name=tolerance...]>]. Optional. For 'changes' format, the numeric change tolerance, with optional per-signal overrides. Default is 0 (any change).");
+        System.out.println("     [-j|budget <MB>]. Optional. The decode memory budget. Groups estimated over budget for objects fall back to iterator, and groups over budget for iterator fail. Default is 0 (no budget).");
+        System.out.println("     [-t|timing <true|false>]. Optional. Whether to print per-stage timers, byte and row counts. Default is false.");
         System.out.println("     [-h|help]. optional)");
         System.out.println("");
     }
@@ -101,8 +132,18 @@ public class VswDecode {
         final String columnExpandMode = ApplicationUtils.getEnum(configs, "-p", new String[] { "none", "flat", "full"}, null);
         final String queryMethod = ApplicationUtils.getEnum(configs, "-x", new String[] { "iterator", "objects", "object1s"}, "objects");
         final boolean base64Encoded = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-b", null), false);
+        final boolean asyncRead = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-a", null), false);
+        final boolean streamFiles = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-g", null), false);
+        final boolean insensitiveCase = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-n", null), false);
         final int densifyRowsAhead = ApplicationUtils.parseInt(ApplicationUtils.get(configs, "-d", null), 0);
         final int densifyOutputItv = ApplicationUtils.parseInt(ApplicationUtils.get(configs, "-e", null), 0);
+        final boolean timing = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-t", null), false);
+        final String filterExpression = ApplicationUtils.get(configs, "-f", null);
+        final long filterContext = ApplicationUtils.parseLong(ApplicationUtils.get(configs, "-c", null), 0);
+        final String outputFormat = ApplicationUtils.getEnum(configs, "-u", new String[] { "csv", "vbin", "changes"}, "csv");
+        final String codecName = ApplicationUtils.get(configs, "-y", "none");
+        final String deadband = ApplicationUtils.get(configs, "-k", null);
+        final long budgetMB = ApplicationUtils.parseLong(ApplicationUtils.get(configs, "-j", null), 0);
         
         if (inputPath.length() == 0) {
             System.out.println("Error: input path parameter empty");
@@ -114,6 +155,16 @@ public class VswDecode {
                 return;
             }
         }
+        //check the output options before the output file is created
+        try {
+            if ("vbin".equalsIgnoreCase(outputFormat) && !"none".equalsIgnoreCase(codecName)) {
+                BlockCodecs.get(codecName);
+            }
+            parseDeadband(deadband, new HashMap<String, Double>());
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
 
         final List<String> inputFilePaths = new ArrayList<>();
         final String[] ps = inputPath.split(",");
@@ -145,12 +196,17 @@ public class VswDecode {
             return;
         }
         
+        final DecodeMetrics metrics = timing ? new DecodeMetrics() : null;
         long start = System.currentTimeMillis();
         
-        decode(queryMethod, inputFilePaths, outputPath, signalNames, base64Encoded, densifyRowsAhead, densifyOutputItv, signalQueueMode, columnExpandMode);
+        decode(queryMethod, inputFilePaths, outputPath, signalNames, base64Encoded, asyncRead, streamFiles, insensitiveCase, densifyRowsAhead, densifyOutputItv, signalQueueMode, columnExpandMode,
+                filterExpression, filterContext, outputFormat, codecName, deadband, budgetMB > 0 ? new MemoryBudget(budgetMB << 20) : null, metrics != null ? metrics : DecodeListener.NOOP);
         
         long end = System.currentTimeMillis();
         System.out.println("took " + (end - start) + " ms");
+        if (metrics != null) {
+            System.out.println(metrics);
+        }
     }
     
     private static void decode(
@@ -159,11 +215,20 @@ public class VswDecode {
             final String outputPath,
             final String signalNames,
             final boolean base64Encoded,
+            final boolean asyncRead,
+            final boolean streamFiles,
+            final boolean insensitiveCase,
             final int densifyRowsAhead,
             final int densifyOutputItv,
             final String signalQueueMode,
-            final String columnExpandMode) throws IOException {
-        final StringBuilder sb = new StringBuilder(4096);
+            final String columnExpandMode,
+            final String filterExpression,
+            final long filterContext,
+            final String outputFormat,
+            final String codecName,
+            final String deadband,
+            final MemoryBudget budget,
+            final DecodeListener listener) throws IOException {
         final DecimalFormat fmt = VDataUtils.getDecimalFormat();
         fmt.setMaximumFractionDigits(10);
          
@@ -176,63 +241,456 @@ public class VswDecode {
             }
         }
         
+        RowWriter output = null;
+        int rowtotal = 0;
+        final long allocated = allocatedBytes();
+        try {
+            //in stream mode, files are decoded one time group at a time, and only files with intersecting time ranges are merged
+            List<List<String>> groups = Collections.singletonList(paths);
+            List<String> names = null;
+            if (streamFiles && paths.size() > 1) {
+                final long t0 = System.nanoTime();
+                final VswTimeGroups timeGroups = VswTimeGroups.scan(paths, base64Encoded, insensitiveCase, columnExpandMode);
+                groups = timeGroups.groups();
+                names = targetSignals.isEmpty() ? timeGroups.names() : selectNames(timeGroups.names(), targetSignals, insensitiveCase);
+                listener.onStage(DecodeStage.READ, System.nanoTime() - t0, 0);
+            }
+            
+            final FileOutputStream out = new FileOutputStream(outputPath);
+            try {
+                output = newRowWriter(out, outputFormat, codecName, deadband, fmt);
+            } catch (IOException | RuntimeException e) {
+                out.close();
+                throw e;
+            }
+            final List<String> header = new ArrayList<>();
+            final List<RowFilter<Object[]>> filter = new ArrayList<>(1);
+            for (final List<String> group : groups) {
+                rowtotal += decode(queryMethod, group, outputPath, targetSignals, base64Encoded, asyncRead, insensitiveCase, densifyRowsAhead, densifyOutputItv, 
+                        signalQueueMode, columnExpandMode, filterExpression, filterContext, names, header, filter, output, budget, listener);
+            }
+            
+            final long outbytes = output.getBytes();
+            final long t0 = System.nanoTime();
+            output.close();
+            listener.onStage(DecodeStage.OUTPUT, System.nanoTime() - t0, output.getBytes() - outbytes);
+            if (allocated >= 0) {
+                listener.onAllocated(allocatedBytes() - allocated);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            if (output != null) {
+                try {
+                    output.close();
+                } catch(IOException e) {}
+            }
+        }
+        System.out.println("Rows: " + rowtotal);
+        System.out.println("------------------------------------------------");
+    }
+    
+    /**
+     * Decode a group of files with one reader, and write the rows.
+     * 
+     * @param names the signal names of all groups to add to the header, or null
+     * @param header the output header, written and filled in by the first group
+     * @param filter the row filter, compiled against the header by the first group, or empty without filter
+     * @param output the row writer
+     * @param budget the memory budget, or null
+     * @return the number of rows written
+     */
+    private static int decode(
+            final String queryMethod,
+            final List<String> paths,
+            final String outputPath,
+            final List<String> targetSignals,
+            final boolean base64Encoded,
+            final boolean asyncRead,
+            final boolean insensitiveCase,
+            final int densifyRowsAhead,
+            final int densifyOutputItv,
+            final String signalQueueMode,
+            final String columnExpandMode,
+            final String filterExpression,
+            final long filterContext,
+            final List<String> names,
+            final List<String> header,
+            final List<RowFilter<Object[]>> filter,
+            final RowWriter output,
+            final MemoryBudget budget,
+            final DecodeListener listener) throws IOException {
         List<BinarySeekableReader> seekables = null;
-        OutputStream output = null;
+        MemoryBudget.Reservation reservation = null;
+        String method = queryMethod;
         VDataReader reader = null;
         VDataFrame df = null;
         List<String> cols = null;
         int rowtotal = 0;
+        long outbytes = output.getBytes();
+        long t0, t1;
         
+        final ReaderOpenEvent openEvent = new ReaderOpenEvent();
+        final FrameQueryEvent queryEvent = new FrameQueryEvent();
+        final OutputWriteEvent outputEvent = new OutputWriteEvent();
         try {
-            seekables = ApplicationUtils.getSeekables(paths, base64Encoded);
+            openEvent.begin();
+            t0 = System.nanoTime();
+            seekables = ApplicationUtils.getSeekables(paths, base64Encoded, asyncRead);
+            long inbytes = 0;
+            for (final String p : paths) {
+                inbytes += new File(p).length();
+            }
+            t1 = System.nanoTime();
+            listener.onStage(DecodeStage.READ, t1 - t0, inbytes);
+            
             reader = new VDataReaderFactory()
                             .setDataReaders(seekables)
                             .setSignals(targetSignals)
                             .setColumnExpandMode(columnExpandMode)
                             .setSignalQueueMode(signalQueueMode)
+                            .setInsensitiveCase(insensitiveCase)
                             .open();
 
             df = reader.df();
             cols = df.cols(true);
+            t0 = System.nanoTime();
+            listener.onStage(DecodeStage.OPEN, t0 - t1, 0);
+            openEvent.end();
+            if (openEvent.shouldCommit()) {
+                openEvent.files = String.join(",", paths);
+                openEvent.fileCount = paths.size();
+                openEvent.bytes = inbytes;
+                openEvent.columns = cols.size() - 1;
+                openEvent.startTime = reader.getStartTime();
+                openEvent.endTime = reader.getEndTime();
+                openEvent.commit();
+            }
+            
+            if (budget != null) {
+                //admit the group before querying: objects may fall back to streaming, else fail fast
+                final DecodeEstimate estimate = DecodeEstimate.of(df, inbytes, DecodeEstimate.DEFAULT_COMPRESSION_RATIO);
+                System.out.println(estimate);
+                try {
+                    reservation = budget.acquire(estimate, 0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    final InterruptedIOException ie = new InterruptedIOException("Error: interrupted while waiting for decode memory");
+                    ie.initCause(e);
+                    throw ie;
+                }
+                if (reservation == null) {
+                    throw new IOException("Error: estimated decode memory exceeds budget: " + (estimate.getIteratorHeapBytes() >> 20) + " MB");
+                }
+                //object1s is sampled at 1 Hz, so only objects is switched; the rows would differ otherwise
+                if (reservation.isDowngraded() && "objects".equalsIgnoreCase(method)) {
+                    System.out.println("Query method downgraded from " + method + " to iterator");
+                    method = "iterator";
+                }
+            }
             
-            output = new FileOutputStream(outputPath);
-            output.write(CsvOutput.headerToString(cols, sb).getBytes(StandardCharsets.UTF_8)); //header
+            if (header.isEmpty()) {
+                header.addAll(cols);
+                if (names != null) {
+                    final HashSet<String> seen = new HashSet<>(cols);
+                    for (final String name : names) {
+                        if (seen.add(name)) {
+                            header.add(name);
+                        }
+                    }
+                }
+                output.writeHeader(header);
+                if (filterExpression != null) {
+                    //compiled once, so a group without a filtered column tests it as null and the padding spans groups
+                    filter.add(new RowFilter<Object[]>(RowPredicate.compile(filterExpression, header), filterContext));
+                }
+            }
+            final int[] mapping = columnMapping(cols, header);
+            final RowFilter<Object[]> rowFilter = filter.isEmpty() ? null : filter.get(0);
             
-            if ("iterator".equalsIgnoreCase(queryMethod)) {
+            if ("iterator".equalsIgnoreCase(method)) {
+                //rows are decoded lazily, so split the time between next() and formatting
+                long querynanos = 0, outputnanos = 0;
+                queryEvent.begin();
+                outputEvent.begin();
+                t1 = System.nanoTime();
+                final List<Object[]> filtered = new ArrayList<>();
                 final Iterator<VDataRow> iter = df.iterator(densifyRowsAhead, densifyOutputItv, 0);
                 while (iter.hasNext()) {
-                    output.write(CsvOutput.rowToString(iter.next(), sb, fmt).getBytes(StandardCharsets.UTF_8));
-                    rowtotal++;
+                    final VDataRow row = iter.next();
+                    t0 = System.nanoTime();
+                    querynanos += t0 - t1;
+                    if (rowFilter == null) {
+                        write(output, row, mapping, header.size());
+                        rowtotal++;
+                    } else {
+                        final Object[] mapped = mapRow(row, mapping, header.size());
+                        if (rowFilter.offer(row.getTime(), mapped, mapped, filtered) > 0) {
+                            for (final Object[] frow : filtered) {
+                                output.write(frow);
+                                rowtotal++;
+                            }
+                            filtered.clear();
+                        }
+                    }
+                    t1 = System.nanoTime();
+                    outputnanos += t1 - t0;
+                }
+                listener.onStage(DecodeStage.QUERY, querynanos + System.nanoTime() - t1, 0);
+                outbytes = output.getBytes() - outbytes;
+                listener.onStage(DecodeStage.OUTPUT, outputnanos, outbytes);
+                queryEvent.end();
+                outputEvent.end();
+                queryEvent.outputTime = outputnanos;
+                if (outputEvent.shouldCommit()) {
+                    outputEvent.path = outputPath;
+                    outputEvent.rows = rowtotal;
+                    outputEvent.bytes = outbytes;
+                    outputEvent.writeTime = outputnanos;
+                    outputEvent.commit();
                 }
             } else {
-                final Object[][] objs = "object1s".equalsIgnoreCase(queryMethod)
+                queryEvent.begin();
+                t0 = System.nanoTime();
+                Object[][] objs = "object1s".equalsIgnoreCase(method)
                         ? df.object1s()
                         : df.objects(densifyRowsAhead, densifyOutputItv);
+                int[] rowMapping = mapping;
+                if (rowFilter != null) {
+                    final List<Object[]> filtered = new ArrayList<>();
+                    for (final Object[] row : objs) {
+                        final Object[] mapped = mapRow(row, mapping, header.size());
+                        rowFilter.offer((Instant) mapped[0], mapped, mapped, filtered);
+                    }
+                    objs = filtered.toArray(new Object[filtered.size()][]);
+                    rowMapping = null;
+                }
+                //the rows are retained until written, so share one instance per distinct string
+                final int width = rowMapping == null && mapping != null ? header.size() : cols.size();
+                for (int c = 1; c < width; ++c) {
+                    new StringDictionary().canonicalizeColumn(objs, c, DICTIONARY_MAX_DISTINCT);
+                }
                 rowtotal = objs.length;
+                t1 = System.nanoTime();
+                listener.onStage(DecodeStage.QUERY, t1 - t0, 0);
+                queryEvent.end();
                 
+                outputEvent.begin();
                 for (final Object[] row : objs) {
-                    output.write(CsvOutput.objectsToString(row, sb, fmt).getBytes(StandardCharsets.UTF_8));
+                    write(output, row, rowMapping, header.size());
+                }
+                outbytes = output.getBytes() - outbytes;
+                final long outputnanos = System.nanoTime() - t1;
+                listener.onStage(DecodeStage.OUTPUT, outputnanos, outbytes);
+                outputEvent.end();
+                if (outputEvent.shouldCommit()) {
+                    outputEvent.path = outputPath;
+                    outputEvent.rows = rowtotal;
+                    outputEvent.bytes = outbytes;
+                    outputEvent.writeTime = outputnanos;
+                    outputEvent.commit();
                 }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (output != null) {
-                try {
-                    output.close();
-                } catch(IOException e) {}
+            listener.onRows(rowtotal);
+            if (queryEvent.shouldCommit()) {
+                queryEvent.files = String.join(",", paths);
+                queryEvent.method = method;
+                queryEvent.expandMode = String.valueOf(df.getColumnExpandMode());
+                queryEvent.queueMode = df.getSignalQueueMode();
+                queryEvent.columns = cols.size() - 1;
+                queryEvent.rows = rowtotal;
+                queryEvent.commit();
             }
+        } finally {
             if (reader != null) {
                 reader.close();
                 reader = null;
             }
+            if (reservation != null) {
+                reservation.close();
+            }
             if (seekables != null) {
                 for (final BinarySeekableReader seekable : seekables) {
                     seekable.close();
                 }
             }
         }
-        System.out.println("Rows: " + rowtotal);
-        System.out.println("------------------------------------------------");
+        return rowtotal;
+    }
+    
+    /**
+     * Select the column names of the requested signals, so signals missing from the first group
+     * still get a header column.  Expanded columns are qualified by the signal name.
+     * 
+     * @param names the column names of all groups
+     * @param signals the requested signals
+     * @param insensitiveCase whether the names are lower case and the signals match in any case
+     * @return the selected names in scan order
+     */
+    private static List<String> selectNames(final List<String> names, final List<String> signals, final boolean insensitiveCase) {
+        final List<String> selected = new ArrayList<>();
+        for (final String name : names) {
+            for (final String s : signals) {
+                final String signal = insensitiveCase ? s.toLowerCase() : s;
+                if (name.equals(signal) || name.startsWith(signal + ".")) {
+                    selected.add(name);
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+    
+    /**
+     * Map the columns of a group to the output header.
+     * 
+     * @param cols the group columns
+     * @param header the output header
+     * @return the header index of each group column, or null if the columns are the header
+     */
+    private static int[] columnMapping(final List<String> cols, final List<String> header) {
+        if (cols.equals(header)) {
+            return null;
+        }
+        
+        final HashMap<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); ++i) {
+            positions.put(header.get(i), i);
+        }
+        final int[] mapping = new int[cols.size()];
+        mapping[0] = 0;
+        for (int i = 1; i < cols.size(); ++i) {
+            final Integer pos = positions.get(cols.get(i));
+            if (pos == null) {
+                System.err.println("Warning: column not in output header, skipped: " + cols.get(i));
+            }
+            mapping[i] = pos != null ? pos : -1;
+        }
+        return mapping;
+    }
+    
+    /**
+     * Map a row to the output header.
+     * 
+     * @param row the row
+     * @param mapping the column mapping, or null if the columns are the header
+     * @param width the header width
+     * @return the values with the time first, in header order
+     */
+    private static Object[] mapRow(final VDataRow row, final int[] mapping, final int width) {
+        final Object[] values = row.getValues();
+        if (mapping == null) {
+            final Object[] objs = new Object[values.length + 1];
+            objs[0] = row.getTime();
+            System.arraycopy(values, 0, objs, 1, values.length);
+            return objs;
+        }
+        
+        final Object[] objs = new Object[width];
+        objs[0] = row.getTime();
+        for (int i = 1; i < mapping.length; ++i) {
+            if (mapping[i] >= 0) {
+                objs[mapping[i]] = values[i - 1];
+            }
+        }
+        return objs;
+    }
+    
+    private static Object[] mapRow(final Object[] row, final int[] mapping, final int width) {
+        if (mapping == null) {
+            return row;
+        }
+        
+        final Object[] objs = new Object[width];
+        objs[0] = row[0];
+        for (int i = 1; i < mapping.length; ++i) {
+            if (mapping[i] >= 0) {
+                objs[mapping[i]] = row[i];
+            }
+        }
+        return objs;
+    }
+    
+    private static void write(final RowWriter output, final VDataRow row, final int[] mapping, final int width) throws IOException {
+        if (mapping == null) {
+            output.write(row);
+        } else {
+            output.write(mapRow(row, mapping, width));
+        }
+    }
+    
+    private static void write(final RowWriter output, final Object[] row, final int[] mapping, final int width) throws IOException {
+        output.write(mapRow(row, mapping, width));
+    }
+    
+    /**
+     * Create the row writer of the output format.
+     * 
+     * @param out the output stream
+     * @param outputFormat the output format, csv or vbin
+     * @param codecName the block codec name for vbin, or none
+     * @param deadband the change tolerances for changes, or null
+     * @param fmt the decimal format for csv
+     * @return the row writer
+     * @throws IOException if the codec is unknown or the tolerance is invalid
+     */
+    private static RowWriter newRowWriter(
+            final OutputStream out,
+            final String outputFormat,
+            final String codecName,
+            final String deadband,
+            final DecimalFormat fmt) throws IOException {
+        if ("vbin".equalsIgnoreCase(outputFormat)) {
+            return new FrameBinaryWriter(out, "none".equalsIgnoreCase(codecName) ? null : BlockCodecs.get(codecName), 8192);
+        }
+        if ("changes".equalsIgnoreCase(outputFormat)) {
+            final Map<String, Double> tolerances = new HashMap<>();
+            final double tolerance = parseDeadband(deadband, tolerances);
+            return new ChangeOnlyRowWriter(out, fmt, tolerance, tolerances);
+        }
+        return new CsvRowWriter(out, fmt);
+    }
+    
+    /**
+     * Parse the change tolerances.
+     * 
+     * @param deadband the change tolerances, or null
+     * @param tolerances the per-signal tolerances to fill in
+     * @return the default tolerance
+     * @throws IOException if a tolerance is invalid
+     */
+    private static double parseDeadband(final String deadband, final Map<String, Double> tolerances) throws IOException {
+        double tolerance = 0;
+        if (deadband != null) {
+            for (final String item : deadband.split(",")) {
+                final int eq = item.lastIndexOf('=');
+                try {
+                    if (eq > 0) {
+                        tolerances.put(item.substring(0, eq).trim(), Double.parseDouble(item.substring(eq + 1).trim()));
+                    } else if (item.trim().length() > 0) {
+                        tolerance = Double.parseDouble(item.trim());
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException("Error: invalid deadband: " + item);
+                }
+            }
+        }
+        return tolerance;
+    }
+    
+    /**
+     * Get the heap bytes allocated so far by the current thread.
+     * 
+     * @return bytes, or -1 if not supported by the JVM
+     */
+    private static long allocatedBytes() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean sunbean = (com.sun.management.ThreadMXBean) bean;
+            if (sunbean.isThreadAllocatedMemorySupported() && sunbean.isThreadAllocatedMemoryEnabled()) {
+                return sunbean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
     }
 }
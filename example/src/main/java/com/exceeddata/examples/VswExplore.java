@@ -0,0 +1,132 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+package com.exceeddata.examples;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.exceeddata.examples.utils.ApplicationUtils;
+import com.exceeddata.examples.utils.LazyVswFrame;
+import com.exceeddata.sdk.vdata.app.LogUtils;
+import com.exceeddata.sdk.vdata.series.VDataSeriesPair;
+
+/**
+ * 
+ * Project: Explore vsw files through a lazy frame that decodes each signal on first access only.
+ * Usage:   java -cp vdata-sdk-java-examples.jar com.exceeddata.examples.VswExplore -i input_path [...optional parameters]
+ *
+ */
+public class VswExplore {
+    
+    private static void printUsage() {
+        System.out.println("java -cp vdata-sdk-java-examples.jar com.exceeddata.examples.VswExplore -i inputPath [-s signalGroups]");
+        System.out.println("     [-i|input <paths>]. Required. The input vsw file path(s). Multiple files are comma separated.");
+        System.out.println("     [-s|signals <groups>]. Optional. Signals to access, e.g. \"a,b;c;a\". Signals of a group are decoded together, groups one after another. Default is to list the names only.");
+        System.out.println("     [-r|repeat <#>]. Optional. The number of passes over the groups. Later passes are served from memory. Default is 2.");
+        System.out.println("     [-b|base64 <true|false>]. Optional. Whether the input file is base64 encoded. Default is false.");
+        System.out.println("     [-m|qmode <last|first|all>]. Optional. The retrieve mode when there are multiple values for a signal at the same time. Default is 'last' (use last value)");
+        System.out.println("     [-h|help]. optional)");
+        System.out.println("");
+    }
+    
+    /**
+     * The main entry method.
+     * 
+     * @param args the arguments
+     * @throws Exception if exception occurs
+     */
+    public static void main(String[] args) throws Exception {
+        
+        LogUtils.setLogLevel();
+        
+        final Map<String, String> configs = new HashMap<>();
+        if (ApplicationUtils.parseArguments(args, configs) < 0) {
+            printUsage();
+            return;
+        }
+        
+        final String inputPath = ApplicationUtils.get(configs, "-i", "");
+        final String signalGroups = ApplicationUtils.get(configs, "-s", "");
+        final int repeat = ApplicationUtils.parseInt(ApplicationUtils.get(configs, "-r", null), 2);
+        final boolean base64Encoded = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-b", null), false);
+        final String signalQueueMode = ApplicationUtils.getEnum(configs, "-m", new String[] { "last", "first", "all"}, null);
+        
+        if (inputPath.length() == 0) {
+            System.out.println("Error: input path parameter empty");
+            return;
+        }
+        
+        final List<List<String>> groups = new ArrayList<>();
+        for (final String group : signalGroups.split(";")) {
+            final List<String> signals = new ArrayList<>();
+            for (final String name : group.split(",")) {
+                if (name.trim().length() > 0) {
+                    signals.add(name.trim());
+                }
+            }
+            if (signals.size() > 0) {
+                groups.add(signals);
+            }
+        }
+        
+        long t0 = System.nanoTime();
+        try (LazyVswFrame frame = LazyVswFrame.open(Arrays.asList(inputPath.split(",")), base64Encoded, signalQueueMode)) {
+            System.out.println("Signals: " + frame.names().size() + ", opened in " + (System.nanoTime() - t0) / 1000000 + " ms");
+            if (groups.isEmpty()) {
+                for (final String name : frame.names()) {
+                    System.out.println(name);
+                }
+                return;
+            }
+            
+            for (int pass = 1; pass <= repeat; ++pass) {
+                for (final List<String> group : groups) {
+                    final int loaded = frame.getLoadedCount();
+                    t0 = System.nanoTime();
+                    final Map<String, List<VDataSeriesPair>> pairs = frame.pairs(group);
+                    final long millis = (System.nanoTime() - t0) / 1000000;
+                    final int decoded = frame.getLoadedCount() - loaded;
+                    
+                    System.out.println("Pass " + pass + ": " + group + " in " + millis + " ms, " + decoded + " decoded");
+                    for (final String signal : group) {
+                        final List<VDataSeriesPair> list = pairs.get(signal);
+                        System.out.println("    " + signal + ": " + (list != null ? list.size() + " pairs" : "not found"));
+                    }
+                }
+            }
+            System.out.println("Decoded signals: " + frame.getLoadedCount());
+        }
+    }
+}
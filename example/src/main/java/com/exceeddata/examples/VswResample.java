@@ -0,0 +1,266 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.exceeddata.examples.utils.ApplicationUtils;
+import com.exceeddata.examples.utils.NumericSeries;
+import com.exceeddata.examples.utils.Resampler;
+import com.exceeddata.sdk.vdata.app.LogUtils;
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+import com.exceeddata.sdk.vdata.data.VDataReader;
+import com.exceeddata.sdk.vdata.data.VDataReaderFactory;
+import com.exceeddata.sdk.vdata.series.VDataSeries;
+import com.exceeddata.sdk.vdata.util.VDataUtils;
+
+/**
+ * 
+ * Project: Resample numeric signals of vsw files onto a fixed-rate grid, as CSV or as a numpy tensor.
+ * Usage:   java -cp vdata-sdk-java-examples.jar com.exceeddata.examples.VswResample -i input_path -o output_path [...optional parameters]
+ *
+ */
+public class VswResample {
+    private static final int CHUNK_CELLS = 1 << 20;
+    
+    private static void printUsage() {
+        System.out.println("java -cp vdata-sdk-java-examples.jar com.exceeddata.examples.VswResample -i inputPath -o outputPath");
+        System.out.println("     [-i|input <paths>]. Required. The input vsw file path(s). Multiple files are comma separated.");
+        System.out.println("     [-o|output <path>]. Required. The output file path.");
+        System.out.println("     [-s|signals <names>]. Optional. Comma-separated list of signal names to extract. Non-numeric signals are skipped.");
+        System.out.println("     [-b|base64 <true|false>]. Optional. Whether the input file is base64 encoded. Default is false.");
+        System.out.println("     [-a|async <true|false>]. Optional. Whether to read input files positionally with read-ahead instead of loading them into memory. Default is false.");
+        System.out.println("     [-e|interval <ms>]. Optional. The output interval. Default is 10.");
+        System.out.println("     [-r|mode <previous|linear|nearest>]. Optional. The interpolation mode. Default is 'previous' (forward fill).");
+        System.out.println("     [-u|format <csv|npy>]. Optional. 'npy' writes a float64 numpy array of shape (ticks, 1 + signals) with time micros in the first column, and the column names to <output>.cols. Default is 'csv'.");
+        System.out.println("     [-h|help]. optional)");
+        System.out.println("");
+    }
+    
+    /**
+     * The main entry method.
+     * 
+     * @param args the arguments
+     * @throws Exception if exception occurs
+     */
+    public static void main(String[] args) throws Exception {
+        
+        LogUtils.setLogLevel();
+        
+        final Map<String, String> configs = new HashMap<>();
+        if (ApplicationUtils.parseArguments(args, configs) < 0) {
+            printUsage();
+            return;
+        }
+        
+        final String inputPath = ApplicationUtils.get(configs, "-i", "");
+        final String outputPath = ApplicationUtils.get(configs, "-o", "");
+        final String signalNames = ApplicationUtils.get(configs, "-s", null);
+        final boolean base64Encoded = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-b", null), false);
+        final boolean asyncRead = ApplicationUtils.parseBoolean(ApplicationUtils.get(configs, "-a", null), false);
+        final long interval = ApplicationUtils.parseLong(ApplicationUtils.get(configs, "-e", null), 10);
+        final Resampler.Mode mode = Resampler.Mode.parse(ApplicationUtils.getEnum(configs, "-r", new String[] { "previous", "linear", "nearest"}, "previous"));
+        final String format = ApplicationUtils.getEnum(configs, "-u", new String[] { "csv", "npy"}, "csv");
+        
+        if (inputPath.length() == 0) {
+            System.out.println("Error: input path parameter empty");
+            return;
+        }
+        if (outputPath.length() == 0) {
+            System.out.println("Error: output path parameter empty");
+            return;
+        }
+        if (interval <= 0) {
+            System.out.println("Error: interval must be positive: " + interval);
+            return;
+        }
+        
+        final List<String> paths = new ArrayList<>();
+        for (final String p : inputPath.split(",")) {
+            final File fp = new File(p.trim());
+            if (ApplicationUtils.validateFile(fp, base64Encoded)) {
+                paths.add(fp.getAbsolutePath());
+            } else {
+                System.err.println("Error: input path not valid: " + fp);
+            }
+        }
+        if (paths.isEmpty()) {
+            System.err.println("Error: no input files not found: " + inputPath);
+            return;
+        }
+        
+        final List<String> targetSignals = new ArrayList<>();
+        if (signalNames != null) {
+            for (final String name : signalNames.split(",")) {
+                if (name.trim().length() > 0) {
+                    targetSignals.add(name.trim());
+                }
+            }
+        }
+        
+        final long start = System.currentTimeMillis();
+        final List<NumericSeries> series = new ArrayList<>();
+        List<BinarySeekableReader> seekables = null;
+        VDataReader reader = null;
+        try {
+            seekables = ApplicationUtils.getSeekables(paths, base64Encoded, asyncRead);
+            reader = new VDataReaderFactory()
+                            .setDataReaders(seekables)
+                            .setSignals(targetSignals)
+                            .open();
+            for (final VDataSeries s : reader.df().series()) {
+                final NumericSeries numeric = NumericSeries.of(s);
+                if (numeric.size() > 0) {
+                    series.add(numeric);
+                }
+            }
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+            if (seekables != null) {
+                for (final BinarySeekableReader seekable : seekables) {
+                    seekable.close();
+                }
+            }
+        }
+        if (series.isEmpty()) {
+            System.err.println("Error: no numeric signals found");
+            return;
+        }
+        
+        long startMicros = Long.MAX_VALUE, endMicros = Long.MIN_VALUE;
+        for (final NumericSeries s : series) {
+            startMicros = Math.min(startMicros, s.time(0));
+            endMicros = Math.max(endMicros, s.time(s.size() - 1));
+        }
+        final long intervalMicros = interval * 1000L;
+        final long ticks = (endMicros - startMicros) / intervalMicros + 1;
+        
+        final Resampler resampler = new Resampler(series.toArray(new NumericSeries[series.size()]), mode);
+        final int width = resampler.width();
+        final int chunkRows = Math.max(1, CHUNK_CELLS / width);
+        final double[] chunk = new double[chunkRows * width];
+        
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputPath), 1 << 16)) {
+            final ByteBuffer bytes = ByteBuffer.allocate(chunkRows * (width + 1) * 8).order(ByteOrder.LITTLE_ENDIAN);
+            final StringBuilder sb = new StringBuilder(4096);
+            final DecimalFormat fmt = VDataUtils.getDecimalFormat();
+            fmt.setMaximumFractionDigits(10);
+            
+            if ("npy".equals(format)) {
+                writeNpyHeader(out, ticks, width + 1);
+                final List<String> cols = new ArrayList<>();
+                cols.add("time");
+                for (final NumericSeries s : series) {
+                    cols.add(s.name());
+                }
+                Files.write(Paths.get(outputPath + ".cols"), cols, StandardCharsets.UTF_8);
+            } else {
+                sb.append("time");
+                for (final NumericSeries s : series) {
+                    sb.append(',').append(s.name());
+                }
+                out.write(sb.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+            }
+            
+            for (long tick = 0; tick < ticks; tick += chunkRows) {
+                final int rows = (int) Math.min(chunkRows, ticks - tick);
+                final long chunkStart = startMicros + tick * intervalMicros;
+                resampler.resample(chunkStart, intervalMicros, rows, chunk);
+                
+                if ("npy".equals(format)) {
+                    bytes.clear();
+                    for (int row = 0; row < rows; ++row) {
+                        bytes.putDouble(chunkStart + row * intervalMicros);
+                        for (int col = 0; col < width; ++col) {
+                            bytes.putDouble(chunk[row * width + col]);
+                        }
+                    }
+                    out.write(bytes.array(), 0, bytes.position());
+                } else {
+                    for (int row = 0; row < rows; ++row) {
+                        final long micros = chunkStart + row * intervalMicros;
+                        sb.setLength(0);
+                        sb.append(Instant.ofEpochSecond(Math.floorDiv(micros, 1000000L), Math.floorMod(micros, 1000000L) * 1000L));
+                        for (int col = 0; col < width; ++col) {
+                            sb.append(',');
+                            final double v = chunk[row * width + col];
+                            if (!Double.isNaN(v)) {
+                                sb.append(fmt.format(v));
+                            }
+                        }
+                        out.write(sb.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+        
+        final long end = System.currentTimeMillis();
+        System.out.println("Rows: " + ticks + ", Signals: " + width);
+        System.out.println("took " + (end - start) + " ms");
+    }
+    
+    /**
+     * Write a numpy version 1.0 header of a C-order float64 array.
+     */
+    private static void writeNpyHeader(final OutputStream out, final long rows, final int cols) throws IOException {
+        final StringBuilder dict = new StringBuilder("{'descr': '<f8', 'fortran_order': False, 'shape': (")
+                .append(rows).append(", ").append(cols).append("), }");
+        //magic, version and header length take 10 bytes, and the whole header is padded to 64 bytes with a trailing newline
+        final int total = (10 + dict.length() + 1 + 63) / 64 * 64;
+        final char[] pad = new char[total - 10 - dict.length() - 1];
+        Arrays.fill(pad, ' ');
+        dict.append(pad).append('\n');
+        
+        final byte[] header = dict.toString().getBytes(StandardCharsets.US_ASCII);
+        out.write(new byte[] { (byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0, (byte) header.length, (byte) (header.length >>> 8) });
+        out.write(header);
+    }
+}
@@ -0,0 +1,108 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.codec;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.MalformedInputException;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+/**
+ * Block codecs backed by aircompressor.  Aircompressor compressors keep internal hash
+ * tables, so instances are reused per thread rather than created per block.
+ *
+ */
+public final class AirliftBlockCodec implements BlockCodec {
+    private final String name;
+    private final ThreadLocal<Compressor> compressors;
+    private final ThreadLocal<Decompressor> decompressors;
+    
+    private AirliftBlockCodec(final String name, final Supplier<Compressor> compressor, final Supplier<Decompressor> decompressor) {
+        this.name = name;
+        this.compressors = ThreadLocal.withInitial(compressor);
+        this.decompressors = ThreadLocal.withInitial(decompressor);
+    }
+    
+    /**
+     * Create the aircompressor LZ4 codec.
+     * 
+     * @return codec
+     */
+    public static AirliftBlockCodec lz4() {
+        return new AirliftBlockCodec("lz4", Lz4Compressor::new, Lz4Decompressor::new);
+    }
+    
+    /**
+     * Create the aircompressor Zstandard codec.
+     * 
+     * @return codec
+     */
+    public static AirliftBlockCodec zstd() {
+        return new AirliftBlockCodec("zstd", ZstdCompressor::new, ZstdDecompressor::new);
+    }
+    
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int maxCompressedLength(final int length) {
+        return compressors.get().maxCompressedLength(length);
+    }
+
+    @Override
+    public int compress(final byte[] src, final int srcOffset, final int srcLength, final byte[] dst, final int dstOffset) throws IOException {
+        final Compressor compressor = compressors.get();
+        return compressor.compress(src, srcOffset, srcLength, dst, dstOffset, compressor.maxCompressedLength(srcLength));
+    }
+
+    @Override
+    public void decompress(final byte[] src, final int srcOffset, final int srcLength, final byte[] dst, final int dstOffset, final int dstLength) throws IOException {
+        final int n;
+        try {
+            n = decompressors.get().decompress(src, srcOffset, srcLength, dst, dstOffset, dstLength);
+        } catch (MalformedInputException e) {
+            throw new IOException("Error: malformed " + name + " block", e);
+        }
+        if (n != dstLength) {
+            throw new IOException("Error: " + name + " block decompressed to " + n + " bytes, expected " + dstLength);
+        }
+    }
+}
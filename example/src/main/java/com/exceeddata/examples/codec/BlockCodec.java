@@ -0,0 +1,89 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.codec;
+
+import java.io.IOException;
+
+/**
+ * Service interface of a block compression codec.  Implementations are looked up by
+ * {@link #name()} through {@link BlockCodecs}, and third-party implementations (e.g. backed
+ * by zstd-jni or lz4-java) can be registered under
+ * <code>META-INF/services/com.exceeddata.examples.codec.BlockCodec</code> to replace the
+ * built-in ones at runtime.
+ * 
+ * <p>Implementations must be thread safe.</p>
+ *
+ */
+public interface BlockCodec {
+    
+    /**
+     * Get the codec name, e.g. "lz4", "zstd" or "deflate".
+     * 
+     * @return the name
+     */
+    String name();
+    
+    /**
+     * Get the maximum compressed length of an input length.
+     * 
+     * @param length the uncompressed length
+     * @return the maximum compressed length
+     */
+    int maxCompressedLength(int length);
+    
+    /**
+     * Compress a block.
+     * 
+     * @param src the source array
+     * @param srcOffset the source offset
+     * @param srcLength the source length
+     * @param dst the destination array, with at least {@link #maxCompressedLength(int)} bytes from the offset
+     * @param dstOffset the destination offset
+     * @return the compressed length
+     * @throws IOException if compression fails
+     */
+    int compress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset) throws IOException;
+    
+    /**
+     * Decompress a block whose uncompressed length is known.
+     * 
+     * @param src the source array
+     * @param srcOffset the source offset
+     * @param srcLength the compressed length
+     * @param dst the destination array
+     * @param dstOffset the destination offset
+     * @param dstLength the uncompressed length
+     * @throws IOException if the block is malformed or does not decompress to the length
+     */
+    void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) throws IOException;
+}
@@ -0,0 +1,87 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.codec;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of {@link BlockCodec} implementations.
+ * 
+ * <p>The built-in codecs are "lz4" and "zstd" (aircompressor) and "deflate" (JDK).  Codecs
+ * found through {@link ServiceLoader} replace built-in codecs of the same name, so a
+ * deployment picks its fastest backend by putting it on the classpath.</p>
+ *
+ */
+public final class BlockCodecs {
+    private static volatile Map<String, BlockCodec> codecs = null;
+    
+    private BlockCodecs() {}
+    
+    /**
+     * Get a codec by name.
+     * 
+     * @param name the codec name, case insensitive
+     * @return the codec
+     * @throws IOException if no codec has the name
+     */
+    public static BlockCodec get(final String name) throws IOException {
+        final BlockCodec codec = codecs().get(name.toLowerCase());
+        if (codec == null) {
+            throw new IOException("Error: unknown codec: " + name + ", available: " + codecs().keySet());
+        }
+        return codec;
+    }
+    
+    /**
+     * Get all codecs by name.
+     * 
+     * @return map of codecs
+     */
+    public static Map<String, BlockCodec> codecs() {
+        Map<String, BlockCodec> map = codecs;
+        if (map == null) {
+            map = new LinkedHashMap<>();
+            for (final BlockCodec codec : new BlockCodec[] { AirliftBlockCodec.lz4(), AirliftBlockCodec.zstd(), new DeflateBlockCodec() }) {
+                map.put(codec.name(), codec);
+            }
+            for (final BlockCodec codec : ServiceLoader.load(BlockCodec.class)) {
+                map.put(codec.name().toLowerCase(), codec);
+            }
+            codecs = map;
+        }
+        return map;
+    }
+}
@@ -0,0 +1,115 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.codec;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Raw deflate block codec on the JDK {@link Deflater} and {@link Inflater}, whose native
+ * zlib streams are reset and reused per thread instead of being created per block.
+ *
+ */
+public final class DeflateBlockCodec implements BlockCodec {
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+    
+    /**
+     * Construct a codec with the default compression level.
+     */
+    public DeflateBlockCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+    
+    /**
+     * Construct a codec.
+     * 
+     * @param level the compression level, 0-9 or -1 for default
+     */
+    public DeflateBlockCodec(final int level) {
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    }
+    
+    @Override
+    public String name() {
+        return "deflate";
+    }
+
+    @Override
+    public int maxCompressedLength(final int length) {
+        //stored blocks add 5 bytes per 16K block, plus the final block
+        return length + ((length >>> 14) + 1) * 5 + 16;
+    }
+
+    @Override
+    public int compress(final byte[] src, final int srcOffset, final int srcLength, final byte[] dst, final int dstOffset) throws IOException {
+        final Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(src, srcOffset, srcLength);
+        deflater.finish();
+        int n = 0;
+        final int max = maxCompressedLength(srcLength);
+        while (!deflater.finished()) {
+            final int d = deflater.deflate(dst, dstOffset + n, max - n);
+            if (d == 0 && n >= max) {
+                throw new IOException("Error: deflate output exceeds " + max + " bytes");
+            }
+            n += d;
+        }
+        return n;
+    }
+
+    @Override
+    public void decompress(final byte[] src, final int srcOffset, final int srcLength, final byte[] dst, final int dstOffset, final int dstLength) throws IOException {
+        final Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(src, srcOffset, srcLength);
+        int n = 0;
+        try {
+            while (n < dstLength) {
+                final int d = inflater.inflate(dst, dstOffset + n, dstLength - n);
+                if (d == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += d;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Error: malformed deflate block", e);
+        }
+        if (n != dstLength) {
+            throw new IOException("Error: deflate block decompressed to " + n + " bytes, expected " + dstLength);
+        }
+    }
+}
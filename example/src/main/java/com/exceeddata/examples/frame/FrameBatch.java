@@ -0,0 +1,402 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.frame;
+
+import static com.exceeddata.examples.frame.FrameBinaryFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A decoded batch of the {@link FrameBinaryFormat}, held as primitive columns.  Column
+ * indexes follow the header columns, where column 0 is the time column.
+ *
+ */
+public final class FrameBatch {
+    private final int rows;
+    private final long[] times;
+    private final int[] types;
+    private final Object[] values;
+    private final byte[][] nulls;
+    private final String[][] dictionaries;
+    
+    FrameBatch(final int rows, final int ncols, final ByteBuffer payload) throws IOException {
+        final ByteBuffer buf = payload.order(ByteOrder.LITTLE_ENDIAN);
+        this.rows = rows;
+        this.times = new long[rows];
+        this.types = new int[ncols];
+        this.values = new Object[ncols];
+        this.nulls = new byte[ncols][];
+        this.dictionaries = new String[ncols][];
+        
+        long t = buf.getLong();
+        times[0] = t;
+        for (int r = 1; r < rows; ++r) {
+            t += unzigzag(readVarLong(buf));
+            times[r] = t;
+        }
+        for (int c = 1; c < ncols; ++c) {
+            readColumn(buf, c);
+        }
+    }
+    
+    private void readColumn(final ByteBuffer buf, final int c) throws IOException {
+        final int type = buf.get();
+        final boolean hasNulls = buf.get() != 0;
+        types[c] = type;
+        if (type == T_NULL) {
+            return;
+        }
+        
+        byte[] bitmap = null;
+        if (hasNulls) {
+            bitmap = new byte[(rows + 7) >>> 3];
+            buf.get(bitmap);
+            nulls[c] = bitmap;
+        }
+        
+        switch (type) {
+            case T_DOUBLE: {
+                final double[] v = new double[rows];
+                if (bitmap == null) {
+                    buf.asDoubleBuffer().get(v);
+                    buf.position(buf.position() + rows * 8);
+                } else {
+                    for (int r = 0; r < rows; ++r) {
+                        if (!isNull(bitmap, r)) {
+                            v[r] = buf.getDouble();
+                        }
+                    }
+                }
+                values[c] = v;
+                break;
+            }
+            case T_FLOAT: {
+                final float[] v = new float[rows];
+                if (bitmap == null) {
+                    buf.asFloatBuffer().get(v);
+                    buf.position(buf.position() + rows * 4);
+                } else {
+                    for (int r = 0; r < rows; ++r) {
+                        if (!isNull(bitmap, r)) {
+                            v[r] = buf.getFloat();
+                        }
+                    }
+                }
+                values[c] = v;
+                break;
+            }
+            case T_LONG: {
+                final long[] v = new long[rows];
+                if (bitmap == null) {
+                    buf.asLongBuffer().get(v);
+                    buf.position(buf.position() + rows * 8);
+                } else {
+                    for (int r = 0; r < rows; ++r) {
+                        if (!isNull(bitmap, r)) {
+                            v[r] = buf.getLong();
+                        }
+                    }
+                }
+                values[c] = v;
+                break;
+            }
+            case T_INT: {
+                final int[] v = new int[rows];
+                if (bitmap == null) {
+                    buf.asIntBuffer().get(v);
+                    buf.position(buf.position() + rows * 4);
+                } else {
+                    for (int r = 0; r < rows; ++r) {
+                        if (!isNull(bitmap, r)) {
+                            v[r] = buf.getInt();
+                        }
+                    }
+                }
+                values[c] = v;
+                break;
+            }
+            case T_SHORT: {
+                final short[] v = new short[rows];
+                for (int r = 0; r < rows; ++r) {
+                    if (bitmap == null || !isNull(bitmap, r)) {
+                        v[r] = buf.getShort();
+                    }
+                }
+                values[c] = v;
+                break;
+            }
+            case T_BYTE:
+            case T_BOOLEAN: {
+                final byte[] v = new byte[rows];
+                for (int r = 0; r < rows; ++r) {
+                    if (bitmap == null || !isNull(bitmap, r)) {
+                        v[r] = buf.get();
+                    }
+                }
+                values[c] = v;
+                break;
+            }
+            case T_STRING: {
+                final String[] dictionary = new String[readVarInt(buf)];
+                for (int i = 0; i < dictionary.length; ++i) {
+                    final byte[] b = new byte[readVarInt(buf)];
+                    buf.get(b);
+                    dictionary[i] = new String(b, StandardCharsets.UTF_8);
+                }
+                final int[] codes = new int[rows];
+                for (int r = 0; r < rows; ++r) {
+                    if (bitmap == null || !isNull(bitmap, r)) {
+                        codes[r] = readVarInt(buf);
+                    }
+                }
+                dictionaries[c] = dictionary;
+                values[c] = codes;
+                break;
+            }
+            case T_OBJECT: {
+                final Object[] v = new Object[rows];
+                for (int r = 0; r < rows; ++r) {
+                    if (bitmap == null || !isNull(bitmap, r)) {
+                        v[r] = readValue(buf);
+                    }
+                }
+                values[c] = v;
+                break;
+            }
+            default:
+                throw new IOException("Error: unknown column type: " + type);
+        }
+    }
+    
+    /**
+     * Read a tagged value of a mixed type, struct or array column.
+     */
+    private static Object readValue(final ByteBuffer buf) throws IOException {
+        final int tag = buf.get();
+        switch (tag) {
+            case T_NULL: return null;
+            case T_DOUBLE: return buf.getDouble();
+            case T_FLOAT: return buf.getFloat();
+            case T_LONG: return buf.getLong();
+            case T_INT: return buf.getInt();
+            case T_SHORT: return buf.getShort();
+            case T_BYTE: return buf.get();
+            case T_BOOLEAN: return buf.get() != 0;
+            case T_STRING: {
+                final byte[] b = new byte[readLength(buf)];
+                buf.get(b);
+                return new String(b, StandardCharsets.UTF_8);
+            }
+            case T_MAP: {
+                final int size = readLength(buf);
+                final Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; ++i) {
+                    final Object key = readValue(buf);
+                    map.put(key, readValue(buf));
+                }
+                return map;
+            }
+            case T_NUMBERS: {
+                final Number[] array = new Number[readLength(buf)];
+                for (int i = 0; i < array.length; ++i) {
+                    final Object o = readValue(buf);
+                    if (o != null && !(o instanceof Number)) {
+                        throw new IOException("Error: invalid number array element");
+                    }
+                    array[i] = (Number) o;
+                }
+                return array;
+            }
+            case T_STRINGS: {
+                final String[] array = new String[readLength(buf)];
+                for (int i = 0; i < array.length; ++i) {
+                    final Object o = readValue(buf);
+                    if (o != null && !(o instanceof String)) {
+                        throw new IOException("Error: invalid string array element");
+                    }
+                    array[i] = (String) o;
+                }
+                return array;
+            }
+            default:
+                throw new IOException("Error: unknown value type: " + tag);
+        }
+    }
+    
+    /**
+     * Read a length, checking it against the remaining bytes before anything is allocated.
+     */
+    private static int readLength(final ByteBuffer buf) throws IOException {
+        final int len = readVarInt(buf);
+        if (len < 0 || len > buf.remaining()) {
+            throw new IOException("Error: invalid value length: " + len);
+        }
+        return len;
+    }
+    
+    private static boolean isNull(final byte[] bitmap, final int r) {
+        return (bitmap[r >>> 3] & (1 << (r & 7))) != 0;
+    }
+    
+    /**
+     * Get the number of rows.
+     * 
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Get the row time in micros since epoch.
+     * 
+     * @param row the row
+     * @return micros
+     */
+    public long getTimeMicros(final int row) {
+        return times[row];
+    }
+    
+    /**
+     * Get the row time.
+     * 
+     * @param row the row
+     * @return the time
+     */
+    public Instant getTime(final int row) {
+        return toInstant(times[row]);
+    }
+    
+    /**
+     * Check whether a value is null.
+     * 
+     * @param col the column, 1 or above
+     * @param row the row
+     * @return true if null
+     */
+    public boolean isNull(final int col, final int row) {
+        return types[col] == T_NULL || (nulls[col] != null && isNull(nulls[col], row));
+    }
+    
+    /**
+     * Get a numeric value as double without boxing.  Null values return 0.
+     * 
+     * @param col the column, 1 or above
+     * @param row the row
+     * @return the value
+     * @throws IOException if the column is not numeric
+     */
+    public double getDouble(final int col, final int row) throws IOException {
+        switch (types[col]) {
+            case T_DOUBLE: return ((double[]) values[col])[row];
+            case T_FLOAT: return ((float[]) values[col])[row];
+            case T_LONG: return ((long[]) values[col])[row];
+            case T_INT: return ((int[]) values[col])[row];
+            case T_SHORT: return ((short[]) values[col])[row];
+            case T_BYTE:
+            case T_BOOLEAN: return ((byte[]) values[col])[row];
+            case T_NULL: return 0d;
+            default: throw new IOException("Error: column " + col + " is not numeric");
+        }
+    }
+    
+    /**
+     * Get the string dictionary of a string column, or null if not a string column.
+     * 
+     * @param col the column, 1 or above
+     * @return the dictionary
+     */
+    public String[] getDictionary(final int col) {
+        return dictionaries[col];
+    }
+    
+    /**
+     * Get the dictionary code of a string value.
+     * 
+     * @param col the column, 1 or above
+     * @param row the row
+     * @return the code, or -1 if null or not a string column
+     */
+    public int getCode(final int col, final int row) {
+        return types[col] == T_STRING && !isNull(col, row) ? ((int[]) values[col])[row] : -1;
+    }
+    
+    /**
+     * Get a value boxed to its original type.
+     * 
+     * @param col the column, 1 or above
+     * @param row the row
+     * @return the value, or null
+     */
+    public Object getObject(final int col, final int row) {
+        if (isNull(col, row)) {
+            return null;
+        }
+        switch (types[col]) {
+            case T_DOUBLE: return ((double[]) values[col])[row];
+            case T_FLOAT: return ((float[]) values[col])[row];
+            case T_LONG: return ((long[]) values[col])[row];
+            case T_INT: return ((int[]) values[col])[row];
+            case T_SHORT: return ((short[]) values[col])[row];
+            case T_BYTE: return ((byte[]) values[col])[row];
+            case T_BOOLEAN: return ((byte[]) values[col])[row] != 0;
+            case T_STRING: return dictionaries[col][((int[]) values[col])[row]];
+            default: return ((Object[]) values[col])[row];
+        }
+    }
+    
+    /**
+     * Materialize the batch as rows of objects, with the row time as {@link Instant} in the first column.
+     * 
+     * @return the rows
+     */
+    public Object[][] toRows() {
+        final int ncols = types.length;
+        final Object[][] result = new Object[rows][];
+        for (int r = 0; r < rows; ++r) {
+            final Object[] row = new Object[ncols];
+            row[0] = getTime(r);
+            for (int c = 1; c < ncols; ++c) {
+                row[c] = getObject(c, r);
+            }
+            result[r] = row;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,135 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.frame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * Constants and primitives of the columnar frame binary format ("vbin").
+ * 
+ * <p>Layout, little endian:</p>
+ * <pre>
+ * file   := "VFB" version:u8 codecLen:u8 codec:ascii ncols:i32 (nameLen:varint name:utf8)* batch* end
+ * batch  := rows:i32 compressed:u8 rawLen:i32 storedLen:i32 payload[storedLen]
+ * end    := 0:i32
+ * payload:= firstTime:i64 (timeDelta:zigzag-varint){rows-1} column{ncols-1}
+ * column := type:u8 hasNulls:u8 [nullBitmap] values
+ * </pre>
+ * <p>Times are micros since epoch.  Values are stored for non-null rows only: fixed width
+ * for primitive types, and a per-batch dictionary plus varint codes for strings.  Columns
+ * of mixed types, structs (<code>Map</code>) and arrays (<code>Number[]</code>,
+ * <code>String[]</code>) are stored as tagged values:</p>
+ * <pre>
+ * value  := tag:u8 (scalar | map | array)
+ * map    := size:varint (key:value value:value){size}
+ * array  := length:varint value{length}
+ * </pre>
+ * <p>Other value types are rejected.  Java serialization is deliberately not used, so
+ * reading a file never instantiates classes named by the file.</p>
+ *
+ */
+public final class FrameBinaryFormat {
+    private FrameBinaryFormat() {}
+    
+    static final byte[] MAGIC = { 'V', 'F', 'B' };
+    static final int VERSION = 1;
+    
+    static final int T_NULL = 0;
+    static final int T_DOUBLE = 1;
+    static final int T_FLOAT = 2;
+    static final int T_LONG = 3;
+    static final int T_INT = 4;
+    static final int T_SHORT = 5;
+    static final int T_BYTE = 6;
+    static final int T_BOOLEAN = 7;
+    static final int T_STRING = 8;
+    static final int T_OBJECT = 9;
+    static final int T_MAP = 10;
+    static final int T_NUMBERS = 11;
+    static final int T_STRINGS = 12;
+    
+    static int typeOf(final Object o) {
+        if (o instanceof Double) {
+            return T_DOUBLE;
+        } else if (o instanceof Float) {
+            return T_FLOAT;
+        } else if (o instanceof Long) {
+            return T_LONG;
+        } else if (o instanceof Integer) {
+            return T_INT;
+        } else if (o instanceof Short) {
+            return T_SHORT;
+        } else if (o instanceof Byte) {
+            return T_BYTE;
+        } else if (o instanceof Boolean) {
+            return T_BOOLEAN;
+        } else if (o instanceof String) {
+            return T_STRING;
+        }
+        return T_OBJECT;
+    }
+    
+    static long toMicros(final Instant time) {
+        return time.getEpochSecond() * 1000000L + time.getNano() / 1000;
+    }
+    
+    static Instant toInstant(final long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1000000L), Math.floorMod(micros, 1000000L) * 1000L);
+    }
+    
+    static long readVarLong(final ByteBuffer buf) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buf.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return v;
+            }
+        }
+        throw new IOException("Error: malformed varint");
+    }
+    
+    static int readVarInt(final ByteBuffer buf) throws IOException {
+        return (int) readVarLong(buf);
+    }
+    
+    static long unzigzag(final long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+    
+    static long zigzag(final long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+}
@@ -0,0 +1,231 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.frame;
+
+import static com.exceeddata.examples.frame.FrameBinaryFormat.*;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.exceeddata.examples.codec.BlockCodec;
+import com.exceeddata.examples.codec.BlockCodecs;
+
+/**
+ * Reader of the {@link FrameBinaryFormat} columnar format, either streaming from an
+ * {@link InputStream} or from a {@link ByteBuffer} such as a memory-mapped file.  With a
+ * buffer, uncompressed batches are decoded straight from the buffer without copying.
+ *
+ */
+public final class FrameBinaryReader implements Closeable {
+    private final InputStream in;
+    private final ByteBuffer buffer;
+    private final List<String> cols;
+    private final BlockCodec codec;
+    private byte[] scratch = new byte[64];
+    private byte[] raw = new byte[0];
+    private boolean ended = false;
+    
+    /**
+     * Construct a streaming reader.
+     * 
+     * @param in the input stream
+     * @throws IOException if the header is invalid
+     */
+    public FrameBinaryReader(final InputStream in) throws IOException {
+        this(in, null);
+    }
+    
+    /**
+     * Construct a reader over the remaining bytes of a buffer.
+     * 
+     * @param buffer the buffer
+     * @throws IOException if the header is invalid
+     */
+    public FrameBinaryReader(final ByteBuffer buffer) throws IOException {
+        this(null, buffer.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+    
+    private FrameBinaryReader(final InputStream in, final ByteBuffer buffer) throws IOException {
+        this.in = in;
+        this.buffer = buffer;
+        
+        final ByteBuffer head = read(5);
+        if (head.get(0) != MAGIC[0] || head.get(1) != MAGIC[1] || head.get(2) != MAGIC[2]) {
+            throw new IOException("Error: not a frame binary file");
+        }
+        if (head.get(3) != VERSION) {
+            throw new IOException("Error: unsupported frame binary version: " + head.get(3));
+        }
+        final int codecLen = head.get(4) & 0xFF;
+        if (codecLen > 0) {
+            final ByteBuffer name = read(codecLen);
+            final byte[] b = new byte[codecLen];
+            name.get(b);
+            codec = BlockCodecs.get(new String(b, StandardCharsets.US_ASCII));
+        } else {
+            codec = null;
+        }
+        
+        final int ncols = read(4).getInt();
+        final List<String> names = new ArrayList<>(ncols);
+        for (int i = 0; i < ncols; ++i) {
+            long len = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = read(1).get();
+                len |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            final ByteBuffer name = read((int) len);
+            final byte[] b = new byte[(int) len];
+            name.get(b);
+            names.add(new String(b, StandardCharsets.UTF_8));
+        }
+        this.cols = Collections.unmodifiableList(names);
+    }
+    
+    /**
+     * Open a file by mapping it into memory.
+     * 
+     * @param path the file path
+     * @return the reader
+     * @throws IOException if occurs
+     */
+    public static FrameBinaryReader open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new FrameBinaryReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    /**
+     * Get the column names including the time column.
+     * 
+     * @return list of columns
+     */
+    public List<String> cols() {
+        return cols;
+    }
+    
+    /**
+     * Read the next batch.
+     * 
+     * @return the batch, or null at the end
+     * @throws IOException if occurs
+     */
+    public FrameBatch next() throws IOException {
+        if (ended) {
+            return null;
+        }
+        
+        final ByteBuffer head = read(4);
+        final int rows = head.getInt();
+        if (rows == 0) {
+            ended = true;
+            return null;
+        }
+        final ByteBuffer lens = read(9);
+        final boolean compressed = lens.get() != 0;
+        final int rawLen = lens.getInt();
+        final int storedLen = lens.getInt();
+        
+        ByteBuffer payload = read(storedLen);
+        if (compressed) {
+            if (codec == null) {
+                throw new IOException("Error: compressed batch without codec");
+            }
+            if (raw.length < rawLen) {
+                raw = new byte[rawLen];
+            }
+            final byte[] src;
+            final int srcOffset;
+            if (payload.hasArray()) {
+                src = payload.array();
+                srcOffset = payload.arrayOffset() + payload.position();
+            } else {
+                src = new byte[storedLen];
+                payload.get(src);
+                srcOffset = 0;
+            }
+            codec.decompress(src, srcOffset, storedLen, raw, 0, rawLen);
+            payload = ByteBuffer.wrap(raw, 0, rawLen);
+        }
+        return new FrameBatch(rows, cols.size(), payload);
+    }
+    
+    /**
+     * Read the next bytes: a view for buffers, a reused scratch array for streams.
+     */
+    private ByteBuffer read(final int n) throws IOException {
+        if (buffer != null) {
+            if (buffer.remaining() < n) {
+                throw new EOFException();
+            }
+            final ByteBuffer view = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+            view.limit(n);
+            buffer.position(buffer.position() + n);
+            return view;
+        }
+        
+        if (scratch.length < n) {
+            scratch = new byte[Math.max(n, scratch.length * 2)];
+        }
+        int off = 0;
+        while (off < n) {
+            final int r = in.read(scratch, off, n - off);
+            if (r < 0) {
+                throw new EOFException();
+            }
+            off += r;
+        }
+        return ByteBuffer.wrap(scratch, 0, n).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+}
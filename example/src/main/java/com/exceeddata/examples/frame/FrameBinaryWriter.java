@@ -0,0 +1,413 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.frame;
+
+import static com.exceeddata.examples.frame.FrameBinaryFormat.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.exceeddata.examples.codec.BlockCodec;
+import com.exceeddata.examples.utils.RowWriter;
+import com.exceeddata.sdk.vdata.data.VDataRow;
+
+/**
+ * Streaming writer of the {@link FrameBinaryFormat} columnar format.  Rows are buffered
+ * column-wise into batches of <code>batchRows</code> rows, and each batch is encoded and
+ * optionally compressed with a {@link BlockCodec} as one block.
+ *
+ */
+public final class FrameBinaryWriter implements RowWriter {
+    private final OutputStream out;
+    private final BlockCodec codec;
+    private final int batchRows;
+    private int ncols = -1;
+    private long[] times;
+    private Object[][] columns;
+    private int rows = 0;
+    private long bytes = 0;
+    private byte[] block = new byte[0];
+    private byte[] stored = new byte[0];
+    private int len = 0;
+    private boolean closed = false;
+    
+    /**
+     * Construct a writer.
+     * 
+     * @param out the output stream
+     * @param codec the block codec, or null for uncompressed batches
+     * @param batchRows the number of rows per batch
+     */
+    public FrameBinaryWriter(final OutputStream out, final BlockCodec codec, final int batchRows) {
+        this.out = out;
+        this.codec = codec;
+        this.batchRows = Math.max(1, batchRows);
+    }
+    
+    @Override
+    public void writeHeader(final List<String> cols) throws IOException {
+        ncols = cols.size();
+        times = new long[batchRows];
+        columns = new Object[ncols - 1][batchRows];
+        
+        len = 0;
+        putBytes(MAGIC, 0, MAGIC.length);
+        putByte(VERSION);
+        final byte[] name = codec != null ? codec.name().getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        putByte(name.length);
+        putBytes(name, 0, name.length);
+        putInt(ncols);
+        for (final String col : cols) {
+            putString(col);
+        }
+        flushBlock();
+    }
+    
+    @Override
+    public void write(final Object[] objs) throws IOException {
+        write((Instant) objs[0], objs, 1);
+    }
+    
+    @Override
+    public void write(final VDataRow row) throws IOException {
+        write(row.getTime(), row.getValues(), 0);
+    }
+    
+    /**
+     * Write a row.  Values are copied into the batch, so the array may be reused by the caller.
+     * 
+     * @param time the row time
+     * @param values the values array
+     * @param offset the position of the first column value in the array
+     * @throws IOException if occurs
+     */
+    public void write(final Instant time, final Object[] values, final int offset) throws IOException {
+        if (ncols < 0) {
+            throw new IOException("Error: header not written");
+        }
+        times[rows] = toMicros(time);
+        for (int c = 0; c < ncols - 1; ++c) {
+            columns[c][rows] = values[offset + c];
+        }
+        if (++rows == batchRows) {
+            writeBatch();
+        }
+    }
+    
+    @Override
+    public long getBytes() {
+        return bytes;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (rows > 0) {
+            writeBatch();
+        }
+        len = 0;
+        putInt(0);
+        flushBlock();
+        out.close();
+    }
+    
+    private void writeBatch() throws IOException {
+        final int n = rows;
+        len = 0;
+        putLong(times[0]);
+        for (int r = 1; r < n; ++r) {
+            putVarLong(zigzag(times[r] - times[r - 1]));
+        }
+        for (int c = 0; c < ncols - 1; ++c) {
+            putColumn(columns[c], n);
+            Arrays.fill(columns[c], 0, n, null);
+        }
+        rows = 0;
+        
+        final int rawLen = len;
+        byte[] payload = block;
+        int storedLen = rawLen;
+        boolean compressed = false;
+        if (codec != null) {
+            final int max = codec.maxCompressedLength(rawLen);
+            if (stored.length < max) {
+                stored = new byte[max];
+            }
+            final int clen = codec.compress(block, 0, rawLen, stored, 0);
+            if (clen < rawLen) {
+                payload = stored;
+                storedLen = clen;
+                compressed = true;
+            }
+        }
+        
+        final byte[] head = new byte[13];
+        writeInt(head, 0, n);
+        head[4] = (byte) (compressed ? 1 : 0);
+        writeInt(head, 5, rawLen);
+        writeInt(head, 9, storedLen);
+        out.write(head);
+        out.write(payload, 0, storedLen);
+        bytes += head.length + storedLen;
+    }
+    
+    private void putColumn(final Object[] values, final int n) throws IOException {
+        int type = T_NULL;
+        int nulls = 0;
+        for (int r = 0; r < n; ++r) {
+            final Object o = values[r];
+            if (o == null) {
+                ++nulls;
+            } else if (type != T_OBJECT) {
+                final int t = typeOf(o);
+                type = type == T_NULL || type == t ? t : T_OBJECT;
+            }
+        }
+        putByte(type);
+        if (type == T_NULL) {
+            putByte(0);
+            return;
+        }
+        putByte(nulls > 0 ? 1 : 0);
+        if (nulls > 0) {
+            final int start = len;
+            ensure((n + 7) >>> 3);
+            Arrays.fill(block, start, start + ((n + 7) >>> 3), (byte) 0);
+            for (int r = 0; r < n; ++r) {
+                if (values[r] == null) {
+                    block[start + (r >>> 3)] |= (byte) (1 << (r & 7));
+                }
+            }
+            len += (n + 7) >>> 3;
+        }
+        
+        switch (type) {
+            case T_DOUBLE:
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        putLong(Double.doubleToRawLongBits((Double) values[r]));
+                    }
+                }
+                break;
+            case T_FLOAT:
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        putInt(Float.floatToRawIntBits((Float) values[r]));
+                    }
+                }
+                break;
+            case T_LONG:
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        putLong((Long) values[r]);
+                    }
+                }
+                break;
+            case T_INT:
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        putInt((Integer) values[r]);
+                    }
+                }
+                break;
+            case T_SHORT:
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        final short v = (Short) values[r];
+                        putByte(v);
+                        putByte(v >> 8);
+                    }
+                }
+                break;
+            case T_BYTE:
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        putByte((Byte) values[r]);
+                    }
+                }
+                break;
+            case T_BOOLEAN:
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        putByte(((Boolean) values[r]) ? 1 : 0);
+                    }
+                }
+                break;
+            case T_STRING: {
+                final HashMap<String, Integer> codes = new HashMap<>();
+                final List<String> dictionary = new ArrayList<>();
+                final int[] encoded = new int[n];
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        final String s = (String) values[r];
+                        Integer code = codes.get(s);
+                        if (code == null) {
+                            code = dictionary.size();
+                            codes.put(s, code);
+                            dictionary.add(s);
+                        }
+                        encoded[r] = code;
+                    }
+                }
+                putVarLong(dictionary.size());
+                for (final String s : dictionary) {
+                    putString(s);
+                }
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        putVarLong(encoded[r]);
+                    }
+                }
+                break;
+            }
+            default:
+                for (int r = 0; r < n; ++r) {
+                    if (values[r] != null) {
+                        putValue(values[r]);
+                    }
+                }
+                break;
+        }
+    }
+    
+    /**
+     * Put a tagged value of a mixed type, struct or array column.
+     */
+    private void putValue(final Object o) throws IOException {
+        if (o == null) {
+            putByte(T_NULL);
+            return;
+        }
+        if (o instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) o;
+            putByte(T_MAP);
+            putVarLong(map.size());
+            for (final Map.Entry<?, ?> e : map.entrySet()) {
+                putValue(e.getKey());
+                putValue(e.getValue());
+            }
+            return;
+        }
+        if (o instanceof Number[] || o instanceof String[]) {
+            final Object[] array = (Object[]) o;
+            putByte(o instanceof Number[] ? T_NUMBERS : T_STRINGS);
+            putVarLong(array.length);
+            for (final Object v : array) {
+                putValue(v);
+            }
+            return;
+        }
+        
+        final int type = typeOf(o);
+        putByte(type);
+        switch (type) {
+            case T_DOUBLE: putLong(Double.doubleToRawLongBits((Double) o)); break;
+            case T_FLOAT: putInt(Float.floatToRawIntBits((Float) o)); break;
+            case T_LONG: putLong((Long) o); break;
+            case T_INT: putInt((Integer) o); break;
+            case T_SHORT: putByte((Short) o); putByte((Short) o >> 8); break;
+            case T_BYTE: putByte((Byte) o); break;
+            case T_BOOLEAN: putByte(((Boolean) o) ? 1 : 0); break;
+            case T_STRING: putString((String) o); break;
+            default: throw new IOException("Error: unsupported value type: " + o.getClass().getName());
+        }
+    }
+    
+    private void flushBlock() throws IOException {
+        out.write(block, 0, len);
+        bytes += len;
+        len = 0;
+    }
+    
+    private void ensure(final int n) {
+        if (len + n > block.length) {
+            block = Arrays.copyOf(block, Math.max(len + n, block.length * 2 + 1024));
+        }
+    }
+    
+    private void putByte(final int v) {
+        ensure(1);
+        block[len++] = (byte) v;
+    }
+    
+    private void putBytes(final byte[] b, final int off, final int n) {
+        ensure(n);
+        System.arraycopy(b, off, block, len, n);
+        len += n;
+    }
+    
+    private void putInt(final int v) {
+        ensure(4);
+        writeInt(block, len, v);
+        len += 4;
+    }
+    
+    private void putLong(final long v) {
+        ensure(8);
+        writeInt(block, len, (int) v);
+        writeInt(block, len + 4, (int) (v >>> 32));
+        len += 8;
+    }
+    
+    private void putVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            block[len++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        block[len++] = (byte) v;
+    }
+    
+    private void putString(final String s) {
+        final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        putVarLong(b.length);
+        putBytes(b, 0, b.length);
+    }
+    
+    private static void writeInt(final byte[] b, final int off, final int v) {
+        b[off] = (byte) v;
+        b[off + 1] = (byte) (v >>> 8);
+        b[off + 2] = (byte) (v >>> 16);
+        b[off + 3] = (byte) (v >>> 24);
+    }
+}
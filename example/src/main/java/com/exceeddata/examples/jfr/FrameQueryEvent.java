@@ -0,0 +1,77 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event spanning the materialization of rows from a VDataFrame.  For the
+ * iterator query method rows are decoded while they are written, so the span
+ * includes output formatting; that part is given in <code>outputTime</code>, and
+ * the same loop is also recorded by an {@link OutputWriteEvent}.
+ *
+ */
+@Name("com.exceeddata.vdata.FrameQuery")
+@Label("vData Frame Query")
+@Category({"vData", "Decode"})
+@Description("Decoding, merging and materializing rows of a VDataFrame")
+public class FrameQueryEvent extends Event {
+    @Label("Files")
+    @Description("Comma-separated input file paths")
+    public String files;
+    
+    @Label("Query Method")
+    public String method;
+    
+    @Label("Expand Mode")
+    public String expandMode;
+    
+    @Label("Queue Mode")
+    public String queueMode;
+    
+    @Label("Columns")
+    public int columns;
+    
+    @Label("Rows")
+    public long rows;
+    
+    @Label("Output Time")
+    @Description("Time spent formatting and writing rows within the span, for the iterator method")
+    @Timespan(Timespan.NANOSECONDS)
+    public long outputTime;
+}
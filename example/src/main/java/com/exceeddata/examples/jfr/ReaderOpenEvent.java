@@ -0,0 +1,73 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timestamp;
+
+/**
+ * JFR event spanning the read of input files and the open of a VDataReader.
+ *
+ */
+@Name("com.exceeddata.vdata.ReaderOpen")
+@Label("vData Reader Open")
+@Category({"vData", "Decode"})
+@Description("Reading input files and opening a VDataReader")
+public class ReaderOpenEvent extends Event {
+    @Label("Files")
+    @Description("Comma-separated input file paths")
+    public String files;
+    
+    @Label("File Count")
+    public int fileCount;
+    
+    @Label("Input Bytes")
+    @DataAmount
+    public long bytes;
+    
+    @Label("Columns")
+    public int columns;
+    
+    @Label("Data Start Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    public long startTime;
+    
+    @Label("Data End Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    public long endTime;
+}
@@ -0,0 +1,73 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.metrics;
+
+/**
+ * Listener for decode instrumentation.  Implementations must be cheap and thread safe,
+ * as they may be shared by concurrent decodes.
+ *
+ */
+public interface DecodeListener {
+    /** A listener that ignores all events. */
+    DecodeListener NOOP = new DecodeListener() {
+        @Override
+        public void onStage(final DecodeStage stage, final long nanos, final long bytes) {}
+        
+        @Override
+        public void onRows(final long rows) {}
+    };
+    
+    /**
+     * Called when a stage completes.
+     * 
+     * @param stage the stage
+     * @param nanos the elapsed nanoseconds spent in the stage
+     * @param bytes the bytes read for {@link DecodeStage#READ}, written for {@link DecodeStage#OUTPUT}, otherwise 0
+     */
+    void onStage(DecodeStage stage, long nanos, long bytes);
+    
+    /**
+     * Called with the number of rows produced by a decode.
+     * 
+     * @param rows the number of rows
+     */
+    void onRows(long rows);
+    
+    /**
+     * Called with the heap bytes allocated by the decoding thread during a decode,
+     * when the JVM supports per-thread allocation counters.
+     * 
+     * @param bytes the allocated bytes
+     */
+    default void onAllocated(final long bytes) {}
+}
@@ -0,0 +1,137 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link DecodeListener} that aggregates per-stage timers, byte counts and row counts in memory.
+ *
+ */
+public final class DecodeMetrics implements DecodeListener {
+    private final LongAdder[] nanos = adders();
+    private final LongAdder[] bytes = adders();
+    private final LongAdder[] counts = adders();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    
+    private static LongAdder[] adders() {
+        final LongAdder[] adders = new LongAdder[DecodeStage.values().length];
+        for (int i = 0; i < adders.length; ++i) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+    
+    @Override
+    public void onStage(final DecodeStage stage, final long nanos, final long bytes) {
+        final int i = stage.ordinal();
+        this.nanos[i].add(nanos);
+        this.bytes[i].add(bytes);
+        this.counts[i].increment();
+    }
+
+    @Override
+    public void onRows(final long rows) {
+        this.rows.add(rows);
+    }
+    
+    @Override
+    public void onAllocated(final long bytes) {
+        allocated.add(bytes);
+    }
+    
+    /**
+     * Get the total nanoseconds spent in a stage.
+     * 
+     * @param stage the stage
+     * @return nanoseconds
+     */
+    public long getNanos(final DecodeStage stage) {
+        return nanos[stage.ordinal()].sum();
+    }
+    
+    /**
+     * Get the total bytes reported for a stage.
+     * 
+     * @param stage the stage
+     * @return bytes
+     */
+    public long getBytes(final DecodeStage stage) {
+        return bytes[stage.ordinal()].sum();
+    }
+    
+    /**
+     * Get the number of times a stage completed.
+     * 
+     * @param stage the stage
+     * @return count
+     */
+    public long getCount(final DecodeStage stage) {
+        return counts[stage.ordinal()].sum();
+    }
+    
+    /**
+     * Get the total heap bytes allocated by decoding threads.
+     * 
+     * @return bytes
+     */
+    public long getAllocatedBytes() {
+        return allocated.sum();
+    }
+    
+    /**
+     * Get the total rows produced.
+     * 
+     * @return rows
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+    
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(256);
+        for (final DecodeStage stage : DecodeStage.values()) {
+            sb.append(String.format("%-7s %10.3f ms  count %6d  bytes %14d%n",
+                    stage, getNanos(stage) / 1e6, getCount(stage), getBytes(stage)));
+        }
+        sb.append(String.format("rows    %d", getRows()));
+        final long inbytes = getBytes(DecodeStage.READ);
+        if (getAllocatedBytes() > 0 && inbytes > 0) {
+            sb.append(String.format("%nalloc   %d bytes, %.1f bytes per MB read",
+                    getAllocatedBytes(), getAllocatedBytes() / (inbytes / 1048576d)));
+        }
+        return sb.toString();
+    }
+}
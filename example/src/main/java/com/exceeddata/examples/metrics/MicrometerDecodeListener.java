@@ -0,0 +1,91 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A {@link DecodeListener} that records to a Micrometer registry.  Meters are resolved
+ * once at construction, so reporting is a timer record and a counter increment.
+ * 
+ * <p>Meters: <code>vdata.decode.stage</code> timer and <code>vdata.decode.bytes</code> counter
+ * tagged with <code>stage</code>, and the <code>vdata.decode.rows</code> and
+ * <code>vdata.decode.allocated.bytes</code> counters.</p>
+ *
+ */
+public final class MicrometerDecodeListener implements DecodeListener {
+    private final Timer[] timers;
+    private final Counter[] bytes;
+    private final Counter rows;
+    private final Counter allocated;
+    
+    /**
+     * Construct the listener.
+     * 
+     * @param registry the meter registry
+     */
+    public MicrometerDecodeListener(final MeterRegistry registry) {
+        final DecodeStage[] stages = DecodeStage.values();
+        timers = new Timer[stages.length];
+        bytes = new Counter[stages.length];
+        for (final DecodeStage stage : stages) {
+            final String tag = stage.name().toLowerCase();
+            timers[stage.ordinal()] = registry.timer("vdata.decode.stage", "stage", tag);
+            bytes[stage.ordinal()] = registry.counter("vdata.decode.bytes", "stage", tag);
+        }
+        rows = registry.counter("vdata.decode.rows");
+        allocated = registry.counter("vdata.decode.allocated.bytes");
+    }
+
+    @Override
+    public void onStage(final DecodeStage stage, final long nanos, final long bytes) {
+        timers[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        if (bytes > 0) {
+            this.bytes[stage.ordinal()].increment(bytes);
+        }
+    }
+
+    @Override
+    public void onRows(final long rows) {
+        this.rows.increment(rows);
+    }
+    
+    @Override
+    public void onAllocated(final long bytes) {
+        allocated.increment(bytes);
+    }
+}
@@ -37,7 +37,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
@@ -214,17 +213,36 @@ public final class ApplicationUtils {
     }
     
     public static List<BinarySeekableReader> getSeekables(final List<String> paths, final boolean base64Encoded) throws IOException {
+        return getSeekables(paths, base64Encoded, false);
+    }
+    
+    /**
+     * Get the seekable readers for the input paths.
+     * 
+     * @param paths the input file paths
+     * @param base64Encoded whether the files are base64 encoded
+     * @param asyncRead whether to read plain files positionally through {@link AsyncFileSeekableReader}
+     *        instead of loading them into memory. Not applicable to base64 encoded files, which are
+     *        decoded while read through {@link Base64FileSeekableReader}.
+     * @return list of seekable readers
+     * @throws IOException if occurs
+     */
+    public static List<BinarySeekableReader> getSeekables(final List<String> paths, final boolean base64Encoded, final boolean asyncRead) throws IOException {
         final List<BinarySeekableReader> seekables = new ArrayList<>();
         for (final String p : paths) {
             final String pn = p.trim();
             if (pn.isEmpty()) {
                 continue;
             }
-            byte[] data = Files.readAllBytes(Paths.get(pn));
+            if (asyncRead && !base64Encoded) {
+                seekables.add(new AsyncFileSeekableReader(pn));
+                continue;
+            }
             if (base64Encoded) {
-                data = Base64.getMimeDecoder().decode(data);
+                seekables.add(new Base64FileSeekableReader(pn));
+                continue;
             }
-            seekables.add(new LittleEndianSeekableBytesReader(data));
+            seekables.add(new LittleEndianSeekableBytesReader(Files.readAllBytes(Paths.get(pn))));
         }
         return seekables;
     }
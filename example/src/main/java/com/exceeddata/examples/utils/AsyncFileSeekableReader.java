@@ -0,0 +1,300 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.exceeddata.sdk.vdata.binary.BinaryEOFException;
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+
+/**
+ * A seekable reader over an {@link AsynchronousFileChannel} with read-ahead.
+ * 
+ * <p>Instead of loading the whole file into memory, data is read positionally in
+ * windows of <code>readAheadSize</code> bytes.  Whenever a window is consumed the
+ * next one is already requested in the background.</p>
+ * 
+ * <p>Window buffers are direct buffers taken from a {@link BufferPool} and returned on
+ * reuse or close, so decoding many files does not allocate a new window per read.</p>
+ * 
+ * <p>The reader holds no monitors: waiting on I/O parks on a {@link Future}, so it
+ * does not pin a carrier thread when used from virtual threads.  Like
+ * {@link com.exceeddata.sdk.vdata.binary.LittleEndianSeekableBytesReader}, an instance
+ * is meant to be used by one thread at a time.</p>
+ *
+ */
+public final class AsyncFileSeekableReader implements BinarySeekableReader {
+    private static final long serialVersionUID = 2604391822571613952L;
+    
+    /** The default read-ahead window size. */
+    public static final int DEFAULT_READ_AHEAD_SIZE = 1024 * 1024;
+    
+    /** The default pool of read-ahead window buffers shared by all readers. */
+    public static final BufferPool DEFAULT_POOL = new BufferPool(true, 64L * 1024 * 1024);
+    
+    private final String path;
+    private final int readAheadSize;
+    private final long length;
+    private long pos = 0;
+    
+    private transient ExecutorService executor;
+    private transient BufferPool pool;
+    private transient AsynchronousFileChannel channel;
+    private transient ByteBuffer window = null;
+    private long windowStart = -1;
+    private transient ByteBuffer ahead = null;
+    private transient Future<Integer> aheadFuture = null;
+    private long aheadStart = -1;
+    
+    /**
+     * Construct a reader with the default read-ahead size, using the default channel thread pool.
+     * 
+     * @param path the file path
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncFileSeekableReader(final String path) throws IOException {
+        this(path, DEFAULT_READ_AHEAD_SIZE, null, DEFAULT_POOL);
+    }
+    
+    /**
+     * Construct a reader.
+     * 
+     * @param path the file path
+     * @param readAheadSize the read-ahead window size in bytes
+     * @param executor the executor to complete channel I/O on, or null for the default pool.
+     *        Sharing one small executor across many readers keeps the I/O thread count bounded.
+     * @param pool the pool of window buffers, or null for {@link #DEFAULT_POOL}
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncFileSeekableReader(final String path, final int readAheadSize, final ExecutorService executor, final BufferPool pool) throws IOException {
+        if (readAheadSize <= 0) {
+            throw new IOException("read ahead size must be positive: " + readAheadSize);
+        }
+        this.path = path;
+        this.readAheadSize = readAheadSize;
+        this.executor = executor;
+        this.pool = pool != null ? pool : DEFAULT_POOL;
+        this.channel = open();
+        this.length = channel.size();
+    }
+    
+    private AsynchronousFileChannel open() throws IOException {
+        return executor != null
+                ? AsynchronousFileChannel.open(Paths.get(path), Collections.singleton(StandardOpenOption.READ), executor)
+                : AsynchronousFileChannel.open(Paths.get(path), StandardOpenOption.READ);
+    }
+    
+    /**
+     * Get the file length.
+     * 
+     * @return the length in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+    
+    @Override
+    public byte[] readBytes(final int len) throws IOException {
+        if (len < 0) {
+            throw new IOException("invalid read length: " + len);
+        }
+        if (pos + len > length) {
+            throw new BinaryEOFException();
+        }
+        
+        final byte[] data = new byte[len];
+        int copied = 0;
+        while (copied < len) {
+            final int remaining = len - copied;
+            if (!windowCovers(pos) && !aheadCovers(pos) && remaining >= readAheadSize) {
+                //large reads go straight into the result array
+                readFully(ByteBuffer.wrap(data, copied, remaining), pos);
+                pos += remaining;
+                copied = len;
+                break;
+            }
+            
+            fill(pos);
+            final int offset = (int) (pos - windowStart);
+            final int n = Math.min(remaining, window.limit() - offset);
+            window.position(offset);
+            window.get(data, copied, n);
+            copied += n;
+            pos += n;
+        }
+        return data;
+    }
+
+    @Override
+    public void seek(final long pos) throws IOException {
+        if (pos < 0 || pos > length) {
+            throw new BinaryEOFException();
+        }
+        this.pos = pos;
+    }
+
+    @Override
+    public void skipBytes(final int len) throws IOException {
+        seek(pos + len);
+    }
+
+    @Override
+    public long getPos() {
+        return pos;
+    }
+    
+    @Override
+    public void close() {
+        pool().release(window);
+        if (aheadFuture != null && aheadFuture.isDone()) {
+            pool().release(ahead);
+        }
+        window = null;
+        ahead = null;
+        aheadFuture = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {}
+            channel = null;
+        }
+    }
+    
+    private boolean windowCovers(final long position) {
+        return window != null && position >= windowStart && position < windowStart + window.limit();
+    }
+    
+    private boolean aheadCovers(final long position) {
+        return aheadFuture != null && position >= aheadStart && position < aheadStart + ahead.limit();
+    }
+    
+    /**
+     * Make the current window cover the position, then request the following window.
+     */
+    private void fill(final long position) throws IOException {
+        if (windowCovers(position)) {
+            return;
+        }
+        
+        if (aheadCovers(position)) {
+            final int n = await(aheadFuture);
+            final ByteBuffer buffer = ahead;
+            final long start = aheadStart;
+            ahead = null;
+            aheadFuture = null;
+            if (n > 0 && position < start + n) {
+                buffer.flip();
+                pool().release(window);
+                window = buffer;
+                windowStart = start;
+            } else {
+                pool().release(buffer);
+            }
+        }
+        
+        if (!windowCovers(position)) {
+            final int size = (int) Math.min(readAheadSize, length - position);
+            final ByteBuffer buffer;
+            if (window != null && window.capacity() >= size) {
+                buffer = window;
+                buffer.clear();
+                buffer.limit(size);
+            } else {
+                pool().release(window);
+                buffer = pool().acquire(size);
+            }
+            window = null;
+            readFully(buffer, position);
+            buffer.flip();
+            window = buffer;
+            windowStart = position;
+        }
+        
+        final long next = windowStart + window.limit();
+        if (aheadFuture == null && next < length) {
+            requestAhead(next, readAheadSize);
+        }
+    }
+    
+    private void requestAhead(final long position, final int size) throws IOException {
+        ahead = pool().acquire((int) Math.min(size, length - position));
+        aheadStart = position;
+        aheadFuture = channel().read(ahead, position);
+    }
+    
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long p = position;
+        while (buffer.hasRemaining()) {
+            final int n = await(channel().read(buffer, p));
+            if (n < 0) {
+                throw new BinaryEOFException();
+            }
+            p += n;
+        }
+    }
+    
+    private BufferPool pool() {
+        if (pool == null) {
+            pool = DEFAULT_POOL;
+        }
+        return pool;
+    }
+    
+    private AsynchronousFileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = open();
+        }
+        return channel;
+    }
+    
+    private static int await(final Future<Integer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while reading");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+}
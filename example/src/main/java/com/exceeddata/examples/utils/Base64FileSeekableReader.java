@@ -0,0 +1,251 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.exceeddata.sdk.vdata.binary.BinaryEOFException;
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+
+/**
+ * A seekable reader over a base64 encoded file, decoded in chunks as the file is read.
+ * 
+ * <p>Reading the whole encoded file and then decoding it keeps both copies on heap at once.
+ * Here the file is read through an {@link AsynchronousFileChannel} in chunks of pooled
+ * buffers, the next chunk being read while the current one is decoded, straight into a
+ * single array sized from the file length.  Peak memory is the decoded data plus two
+ * chunks.</p>
+ * 
+ * <p>Like {@link java.util.Base64#getMimeDecoder()}, characters outside the base64 alphabet
+ * (line separators and whitespace) are ignored, and decoding ends at the first padding.
+ * Like {@link com.exceeddata.sdk.vdata.binary.LittleEndianSeekableBytesReader}, an instance
+ * is meant to be used by one thread at a time.</p>
+ *
+ */
+public final class Base64FileSeekableReader implements BinarySeekableReader {
+    private static final long serialVersionUID = -3310276502178904519L;
+    
+    /** The default chunk size. */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    
+    private static final byte SKIP = -1;
+    private static final byte PAD = -2;
+    private static final byte[] DECODE = new byte[256];
+    static {
+        Arrays.fill(DECODE, SKIP);
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); ++i) {
+            DECODE[alphabet.charAt(i)] = (byte) i;
+        }
+        DECODE['='] = PAD;
+    }
+    
+    private byte[] data;
+    private final int length;
+    private int pos = 0;
+    
+    /**
+     * Construct a reader with the default chunk size, using the read-ahead buffer pool of
+     * {@link AsyncFileSeekableReader}.
+     * 
+     * @param path the file path
+     * @throws IOException if the file cannot be read or is not valid base64
+     */
+    public Base64FileSeekableReader(final String path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE, null);
+    }
+    
+    /**
+     * Construct a reader.
+     * 
+     * @param path the file path
+     * @param chunkSize the chunk size in bytes
+     * @param pool the pool of chunk buffers, or null for {@link AsyncFileSeekableReader#DEFAULT_POOL}
+     * @throws IOException if the file cannot be read or is not valid base64
+     */
+    public Base64FileSeekableReader(final String path, final int chunkSize, final BufferPool pool) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IOException("chunk size must be positive: " + chunkSize);
+        }
+        final BufferPool buffers = pool != null ? pool : AsyncFileSeekableReader.DEFAULT_POOL;
+        try (final AsynchronousFileChannel channel = AsynchronousFileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            //every 4 alphabet characters decode to 3 bytes, so the encoded size bounds the decoded size
+            if (size / 4 * 3 + 2 > Integer.MAX_VALUE - 8) {
+                throw new IOException("base64 file too large: " + path);
+            }
+            this.data = new byte[(int) (size / 4 * 3 + 2)];
+            this.length = decode(channel, size, chunkSize, buffers, path);
+        }
+    }
+    
+    private int decode(final AsynchronousFileChannel channel, final long size, final int chunkSize, final BufferPool buffers, final String path) throws IOException {
+        final byte[] chars = new byte[(int) Math.min(chunkSize, Math.max(size, 1))];
+        final byte[] out = data;
+        int bits = 0, count = 0, n = 0;
+        long position = 0;
+        boolean padded = false;
+        
+        ByteBuffer current = null, next = null;
+        Future<Integer> future = null;
+        try {
+            if (size > 0) {
+                current = buffers.acquire(chars.length);
+                future = channel.read(current, 0);
+            }
+            while (future != null && !padded) {
+                final int read = await(future);
+                future = null;
+                if (read < 0) {
+                    throw new BinaryEOFException();
+                }
+                position += read;
+                if (position < size) {
+                    //read the next chunk while this one is decoded
+                    next = buffers.acquire((int) Math.min(chars.length, size - position));
+                    future = channel.read(next, position);
+                }
+                
+                current.flip();
+                current.get(chars, 0, read);
+                for (int i = 0; i < read; ++i) {
+                    final byte v = DECODE[chars[i] & 0xff];
+                    if (v < 0) {
+                        if (v == PAD) {
+                            padded = true;
+                            break;
+                        }
+                        continue;
+                    }
+                    bits = bits << 6 | v;
+                    if (++count == 4) {
+                        out[n++] = (byte) (bits >> 16);
+                        out[n++] = (byte) (bits >> 8);
+                        out[n++] = (byte) bits;
+                        bits = 0;
+                        count = 0;
+                    }
+                }
+                
+                buffers.release(current);
+                current = next;
+                next = null;
+            }
+        } finally {
+            //an in-flight read keeps writing into its own buffer, so never release it here
+            if (future == null || future.isDone()) {
+                buffers.release(current);
+            }
+        }
+        
+        switch (count) {
+            case 0:
+                break;
+            case 2:
+                out[n++] = (byte) (bits >> 4);
+                break;
+            case 3:
+                out[n++] = (byte) (bits >> 10);
+                out[n++] = (byte) (bits >> 2);
+                break;
+            default:
+                throw new IOException("invalid base64 content, incomplete last unit: " + path);
+        }
+        return n;
+    }
+    
+    /**
+     * Get the decoded length.
+     * 
+     * @return the length in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+    
+    @Override
+    public byte[] readBytes(final int len) throws IOException {
+        if (len < 0) {
+            throw new IOException("invalid read length: " + len);
+        }
+        if (data == null || len > length - pos) {
+            throw new BinaryEOFException();
+        }
+        final byte[] bytes = Arrays.copyOfRange(data, pos, pos + len);
+        pos += len;
+        return bytes;
+    }
+
+    @Override
+    public void seek(final long pos) throws IOException {
+        if (pos < 0 || pos > length) {
+            throw new BinaryEOFException();
+        }
+        this.pos = (int) pos;
+    }
+
+    @Override
+    public void skipBytes(final int len) throws IOException {
+        seek(pos + (long) len);
+    }
+
+    @Override
+    public long getPos() {
+        return pos;
+    }
+
+    @Override
+    public void close() {
+        data = null;
+    }
+    
+    private static int await(final Future<Integer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while reading");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of reusable byte buffers in power-of-two size classes.
+ * 
+ * <p>Large buffers allocated per read window or per file are short lived but too big for
+ * the young generation, so they churn straight into the old generation.  Buffers are
+ * acquired for a requested size, rounded up to the size class, and released back when
+ * done.  The pool keeps at most <code>maxPooledBytes</code> of idle buffers; releases
+ * beyond that are left to the garbage collector.  It is safe for concurrent use.</p>
+ *
+ */
+public final class BufferPool {
+    private static final int MIN_CLASS = 12; //4 KB
+    private static final int MAX_CLASS = 27; //128 MB
+    
+    private final boolean direct;
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final List<ConcurrentLinkedQueue<ByteBuffer>> classes;
+    
+    /**
+     * Construct a pool.
+     * 
+     * @param direct whether to allocate direct buffers
+     * @param maxPooledBytes the maximum bytes of idle buffers kept
+     */
+    public BufferPool(final boolean direct, final long maxPooledBytes) {
+        this.direct = direct;
+        this.maxPooledBytes = maxPooledBytes;
+        this.classes = new ArrayList<>(MAX_CLASS - MIN_CLASS + 1);
+        for (int c = MIN_CLASS; c <= MAX_CLASS; ++c) {
+            classes.add(new ConcurrentLinkedQueue<ByteBuffer>());
+        }
+    }
+    
+    /**
+     * Acquire a buffer of at least the size. The buffer is cleared with its limit set to the size.
+     * 
+     * @param size the size in bytes
+     * @return the buffer
+     */
+    public ByteBuffer acquire(final int size) {
+        final int c = sizeClass(size);
+        if (c > MAX_CLASS) {
+            allocatedBytes.addAndGet(size);
+            return allocate(size);
+        }
+        
+        ByteBuffer buffer = classes.get(c - MIN_CLASS).poll();
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.capacity());
+        } else {
+            buffer = allocate(1 << c);
+            allocatedBytes.addAndGet(buffer.capacity());
+        }
+        buffer.clear();
+        buffer.limit(size);
+        return buffer;
+    }
+    
+    /**
+     * Release a buffer back to the pool. The caller must not use the buffer afterwards,
+     * and must not release a buffer that an asynchronous operation may still write to.
+     * 
+     * @param buffer the buffer, may be null
+     */
+    public void release(final ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() != direct) {
+            return;
+        }
+        final int capacity = buffer.capacity();
+        final int c = sizeClass(capacity);
+        if (c > MAX_CLASS || (1 << c) != capacity) {
+            return; //not one of ours
+        }
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        classes.get(c - MIN_CLASS).offer(buffer);
+    }
+    
+    /**
+     * Get the bytes of idle buffers currently pooled.
+     * 
+     * @return bytes
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+    
+    /**
+     * Get the total bytes allocated by the pool, a measure of how well buffers are reused.
+     * 
+     * @return bytes
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+    
+    private ByteBuffer allocate(final int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+    
+    private static int sizeClass(final int size) {
+        if (size <= (1 << MIN_CLASS)) {
+            return MIN_CLASS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+}
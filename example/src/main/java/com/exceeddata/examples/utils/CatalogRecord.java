@@ -0,0 +1,117 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.Serializable;
+
+/**
+ * A compact catalog record of a vsw file: the header meta and the signal names and descriptions.
+ *
+ */
+public final class CatalogRecord implements Serializable {
+    private static final long serialVersionUID = -3172594436098471785L;
+    
+    private final String path;
+    private final long length;
+    private final int formatVersion;
+    private final int compressMethod;
+    private final int encryptionMethod;
+    private final int blocksCount;
+    private final long startTime;
+    private final long endTime;
+    private final String[] names;
+    private final String[] descs;
+    
+    CatalogRecord(
+            final String path,
+            final long length,
+            final int formatVersion,
+            final int compressMethod,
+            final int encryptionMethod,
+            final int blocksCount,
+            final long startTime,
+            final long endTime,
+            final String[] names,
+            final String[] descs) {
+        this.path = path;
+        this.length = length;
+        this.formatVersion = formatVersion;
+        this.compressMethod = compressMethod;
+        this.encryptionMethod = encryptionMethod;
+        this.blocksCount = blocksCount;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.names = names;
+        this.descs = descs;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public int getFormatVersion() {
+        return formatVersion;
+    }
+
+    public int getCompressMethod() {
+        return compressMethod;
+    }
+
+    public int getEncryptionMethod() {
+        return encryptionMethod;
+    }
+
+    public int getBlocksCount() {
+        return blocksCount;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public String[] getDescs() {
+        return descs;
+    }
+}
@@ -0,0 +1,157 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.exceeddata.sdk.vdata.data.VDataRow;
+
+/**
+ * A {@link RowWriter} of long format CSV (time, signal, value) that writes a signal value only
+ * when it changes.  Numeric values are compared as doubles against the last written value with
+ * an optional deadband, so float noise within the tolerance is not written; other values are
+ * compared with equals, and arrays element by element.
+ *
+ */
+public final class ChangeOnlyRowWriter implements RowWriter {
+    private final OutputStream out;
+    private final DecimalFormat fmt;
+    private final double deadband;
+    private final Map<String, Double> deadbands;
+    private final StringBuilder sb = new StringBuilder(256);
+    private String[] names;
+    private double[] tolerances;
+    private double[] lastNumbers;
+    private Object[] lastObjects;
+    private boolean[] written;
+    private long bytes = 0;
+    private long changes = 0;
+    
+    /**
+     * Construct a writer.
+     * 
+     * @param out the output stream
+     * @param fmt the decimal format
+     * @param deadband the default tolerance of numeric changes, 0 for any change
+     * @param deadbands the tolerance per signal name overriding the default, or null
+     */
+    public ChangeOnlyRowWriter(final OutputStream out, final DecimalFormat fmt, final double deadband, final Map<String, Double> deadbands) {
+        this.out = out;
+        this.fmt = fmt;
+        this.deadband = deadband;
+        this.deadbands = deadbands;
+    }
+    
+    @Override
+    public void writeHeader(final List<String> cols) throws IOException {
+        final int n = cols.size() - 1;
+        names = cols.subList(1, cols.size()).toArray(new String[n]);
+        tolerances = new double[n];
+        lastNumbers = new double[n];
+        lastObjects = new Object[n];
+        written = new boolean[n];
+        for (int c = 0; c < n; ++c) {
+            final Double d = deadbands != null ? deadbands.get(names[c]) : null;
+            tolerances[c] = d != null ? d : deadband;
+        }
+        write("time,signal,value\n");
+    }
+
+    @Override
+    public void write(final Object[] objs) throws IOException {
+        write((Instant) objs[0], objs, 1);
+    }
+
+    @Override
+    public void write(final VDataRow row) throws IOException {
+        write(row.getTime(), row.getValues(), 0);
+    }
+    
+    private void write(final Instant time, final Object[] values, final int offset) throws IOException {
+        for (int c = 0; c < names.length; ++c) {
+            final Object o = values[offset + c];
+            if (o == null) {
+                continue;
+            }
+            if (o instanceof Number) {
+                final double v = ((Number) o).doubleValue();
+                if (written[c] && lastObjects[c] == null
+                        && (Math.abs(v - lastNumbers[c]) <= tolerances[c] || (Double.isNaN(v) && Double.isNaN(lastNumbers[c])))) {
+                    continue;
+                }
+                lastNumbers[c] = v;
+                lastObjects[c] = null;
+            } else {
+                if (written[c] && Objects.deepEquals(o, lastObjects[c])) {
+                    continue;
+                }
+                lastObjects[c] = o;
+            }
+            written[c] = true;
+            ++changes;
+            write(CsvOutput.longRowToString(time, names[c], o, sb, fmt));
+        }
+    }
+    
+    private void write(final String s) throws IOException {
+        final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.write(b);
+        bytes += b.length;
+    }
+    
+    /**
+     * Get the number of value changes written.
+     * 
+     * @return changes
+     */
+    public long getChanges() {
+        return changes;
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -36,7 +36,6 @@ import java.text.DecimalFormat;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import com.exceeddata.sdk.vdata.data.VDataRow;
 
@@ -45,8 +44,6 @@ import com.exceeddata.sdk.vdata.data.VDataRow;
  *
  */
 public final class CsvOutput {
-    private static final Pattern specials = Pattern.compile("[\\,\\\"\\r\\n]+");
-    
     private CsvOutput() {}
     
     /**
@@ -101,94 +98,165 @@ public final class CsvOutput {
             sb.append(',');
             final Object o = objs[r];
             if (o != null) {
-                if (o instanceof Number) {
-                    sb.append(fmt.format(o));
-                } else if (o instanceof Map) {
-                    final Map<?, ?> vals = (Map<?, ?>) o;
-                    sb.append("\"{");
-                    for (final Map.Entry<?, ?> entry : vals.entrySet()) {
-                        if (entry.getValue() != null) {
-                            sb.append("\"\"").append(entry.getKey().toString()).append("\"\":\"\"");
-                            sb.append(entry.getValue() instanceof String
-                                    ? entry.getValue().toString() : fmt.format(entry.getValue()));
-                            sb.append("\"\",");
-                        }
-                    }
-                    if (vals.size() > 0) {
-                        sb.setLength(sb.length() - 1);
-                    }
-                    sb.append("}\"");
-                } else if (o instanceof Number[]) {
-                    final Number[] vals = (Number[]) o;
-                    sb.append("\"[");
-                    for (int i = 0, s = vals.length; i < s; ++i) {
-                        if (vals[i] != null) {
-                            sb.append(fmt.format(vals[i]));
-                        }
-                        sb.append(',');
-                    }
-                    if (vals.length > 0) {
-                        sb.setLength(sb.length() - 1);
-                    }
-                    sb.append("]\"");
-                } else if (o instanceof String[]) {
-                    final String[] vals = (String[]) o;
-                    final StringBuilder nb = new StringBuilder();
-                    sb.append("\"[");
-                    for (int i = 0, s = vals.length; i < s; ++i) {
-                        if (vals[i] != null) {
-                            nb.setLength(0);
-                            buildString(nb, vals[i]);
-                            buildString(sb, nb.toString());
-                        }
-                        sb.append(',');
-                    }
-                    if (vals.length > 0) {
-                        sb.setLength(sb.length() - 1);
-                    }
-                    sb.append("]\"");
-                } else {
-                    buildString(sb, o.toString());
-                }
+                appendValue(sb, o, fmt);
+            }
+        }
+        sb.append('\n');
+        return sb.toString();
+    }
+    
+    /**
+     * Generate a CSV row from a sparse row batch.  Only the present cells are visited, and the
+     * empty cells in between are filled as separators.
+     * 
+     * @param batch the sparse row batch
+     * @param row the row in the batch
+     * @param sb the string buffer
+     * @param fmt the decimal format
+     * @return generated row string
+     */
+    public static String sparseRowToString(final SparseRowBatch batch, final int row, final StringBuilder sb, final DecimalFormat fmt) {
+        sb.setLength(0);
+        sb.append(toMicrosTimeString(batch.getTime(row)));
+        int last = -1;
+        for (int c = batch.nextPresent(row, 0); c >= 0; c = batch.nextPresent(row, c + 1)) {
+            for (int i = last; i < c; ++i) {
+                sb.append(',');
             }
+            appendValue(sb, batch.getObject(row, c), fmt);
+            last = c;
+        }
+        for (int i = last, t = batch.getColumns() - 1; i < t; ++i) {
+            sb.append(',');
+        }
+        sb.append('\n');
+        return sb.toString();
+    }
+    
+    /**
+     * Generate a long format CSV row of one signal value.
+     * 
+     * @param time the time
+     * @param name the signal name
+     * @param value the value
+     * @param sb the string buffer
+     * @param fmt the decimal format
+     * @return generated row string
+     */
+    public static String longRowToString(final Instant time, final String name, final Object value, final StringBuilder sb, final DecimalFormat fmt) {
+        sb.setLength(0);
+        sb.append(toMicrosTimeString(time)).append(',');
+        buildString(sb, name);
+        sb.append(',');
+        if (value != null) {
+            appendValue(sb, value, fmt);
         }
         sb.append('\n');
         return sb.toString();
     }
     
+    private static void appendValue(final StringBuilder sb, final Object o, final DecimalFormat fmt) {
+        if (o instanceof Number) {
+            sb.append(fmt.format(o));
+        } else if (o instanceof Map) {
+            final Map<?, ?> vals = (Map<?, ?>) o;
+            sb.append("\"{");
+            for (final Map.Entry<?, ?> entry : vals.entrySet()) {
+                if (entry.getValue() != null) {
+                    sb.append("\"\"").append(entry.getKey().toString()).append("\"\":\"\"");
+                    sb.append(entry.getValue() instanceof String
+                            ? entry.getValue().toString() : fmt.format(entry.getValue()));
+                    sb.append("\"\",");
+                }
+            }
+            if (vals.size() > 0) {
+                sb.setLength(sb.length() - 1);
+            }
+            sb.append("}\"");
+        } else if (o instanceof Number[]) {
+            final Number[] vals = (Number[]) o;
+            sb.append("\"[");
+            for (int i = 0, s = vals.length; i < s; ++i) {
+                if (vals[i] != null) {
+                    sb.append(fmt.format(vals[i]));
+                }
+                sb.append(',');
+            }
+            if (vals.length > 0) {
+                sb.setLength(sb.length() - 1);
+            }
+            sb.append("]\"");
+        } else if (o instanceof String[]) {
+            final String[] vals = (String[]) o;
+            sb.append("\"[");
+            for (int i = 0, s = vals.length; i < s; ++i) {
+                if (vals[i] != null) {
+                    //elements are escaped once for the element and once more for the enclosing quoted cell
+                    final int len = vals[i].length();
+                    if (hasSpecials(vals[i], len)) {
+                        sb.append("\"\"\"");
+                        appendEscaped(sb, vals[i], len, 2);
+                        sb.append("\"\"\"");
+                    } else {
+                        sb.append(vals[i]);
+                    }
+                }
+                sb.append(',');
+            }
+            if (vals.length > 0) {
+                sb.setLength(sb.length() - 1);
+            }
+            sb.append("]\"");
+        } else {
+            buildString(sb, o.toString());
+        }
+    }
+    
     private static void buildString (final StringBuilder sb, final String s) {
         final int len = s != null ? s.length() : 0;
         
         if (len > 0) {
-            if (!specials.matcher(s).find()) {
+            if (!hasSpecials(s, len)) {
                 sb.append(s);
                 return;
             }
             
-            final StringBuilder nb = new StringBuilder();
-            boolean needsQuotes = false;
-            char c;
-            for (int i = 0; i < len; ++i) {
-                c = s.charAt(i);
-                if (c == ',' || c == '\n' || c == '\r') {
-                    nb.append(c);
-                    needsQuotes = true;
-                } else if (c == '"') {
-                    nb.append(c).append(c);
-                    needsQuotes = true;
-                } else if (c == '\\') {
-                    nb.append(c).append(c);
-                    needsQuotes = true;
-                } else {
-                    nb.append(c);
+            sb.append('"');
+            appendEscaped(sb, s, len, 1);
+            sb.append('"');
+        }
+    }
+    
+    /**
+     * Append a string with quotes and backslashes doubled, repeated for the number of quoting levels.
+     */
+    private static void appendEscaped(final StringBuilder sb, final String s, final int len, final int levels) {
+        final int repeat = 1 << levels;
+        char c;
+        for (int i = 0; i < len; ++i) {
+            c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                for (int k = 0; k < repeat; ++k) {
+                    sb.append(c);
                 }
-            }
-            if (needsQuotes) {
-                sb.append('"').append(nb).append('"');
             } else {
-                sb.append(nb);
+                sb.append(c);
+            }
+        }
+    }
+    
+    /**
+     * Check for characters that need quoting without allocating a regex matcher per value.
+     */
+    private static boolean hasSpecials(final String s, final int len) {
+        char c;
+        for (int i = 0; i < len; ++i) {
+            c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
             }
         }
+        return false;
     }
     
     private static String toMicrosTimeString(final Instant time) {
@@ -0,0 +1,94 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.util.List;
+
+import com.exceeddata.sdk.vdata.data.VDataRow;
+
+/**
+ * A {@link RowWriter} of CSV format through {@link CsvOutput}.
+ *
+ */
+public final class CsvRowWriter implements RowWriter {
+    private final OutputStream out;
+    private final DecimalFormat fmt;
+    private final StringBuilder sb = new StringBuilder(4096);
+    private long bytes = 0;
+    
+    /**
+     * Construct a writer.
+     * 
+     * @param out the output stream
+     * @param fmt the decimal format
+     */
+    public CsvRowWriter(final OutputStream out, final DecimalFormat fmt) {
+        this.out = out;
+        this.fmt = fmt;
+    }
+    
+    @Override
+    public void writeHeader(final List<String> cols) throws IOException {
+        write(CsvOutput.headerToString(cols, sb));
+    }
+
+    @Override
+    public void write(final Object[] objs) throws IOException {
+        write(CsvOutput.objectsToString(objs, sb, fmt));
+    }
+
+    @Override
+    public void write(final VDataRow row) throws IOException {
+        write(CsvOutput.rowToString(row, sb, fmt));
+    }
+    
+    private void write(final String s) throws IOException {
+        final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.write(b);
+        bytes += b.length;
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,184 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.util.List;
+
+import com.exceeddata.sdk.vdata.data.VDataFrame;
+import com.exceeddata.sdk.vdata.series.VDataSeries;
+
+/**
+ * An estimate of decode cost made from an opened frame before any query runs.  Item counts come
+ * from the series bucket counts, so they are upper bounds; heap figures are conservative sizes
+ * of the JVM objects each query method creates, for admission and sizing rather than accounting.
+ *
+ */
+public final class DecodeEstimate {
+    /** object header plus reference, per row array */
+    private static final long ROW_ARRAY_BYTES = 16;
+    /** bytes per reference in an object array */
+    private static final long REF_BYTES = 8;
+    /** a boxed value, e.g. a Double */
+    private static final long BOXED_BYTES = 16;
+    /** an Instant of the row time */
+    private static final long INSTANT_BYTES = 24;
+    /** the default ratio of decompressed to stored bytes when the compression is unknown */
+    public static final double DEFAULT_COMPRESSION_RATIO = 4d;
+    
+    private final int columns;
+    private final long items;
+    private final long rowsLower;
+    private final long rowsUpper;
+    private final long inputBytes;
+    private final long decompressedBytes;
+    
+    private DecodeEstimate(final int columns, final long items, final long rowsLower, final long rowsUpper, final long inputBytes, final long decompressedBytes) {
+        this.columns = columns;
+        this.items = items;
+        this.rowsLower = rowsLower;
+        this.rowsUpper = rowsUpper;
+        this.inputBytes = inputBytes;
+        this.decompressedBytes = decompressedBytes;
+    }
+    
+    /**
+     * Estimate the decode cost of a frame.
+     * 
+     * @param df the opened frame
+     * @param inputBytes the stored input bytes
+     * @param compressionRatio the ratio of decompressed to stored bytes
+     * @return the estimate
+     */
+    public static DecodeEstimate of(final VDataFrame df, final long inputBytes, final double compressionRatio) {
+        final List<VDataSeries> series = df.series();
+        long items = 0, maxItems = 0;
+        for (final VDataSeries s : series) {
+            final long n = (long) s.numBuckets() * s.getMaxBucketItemCount();
+            items += n;
+            maxItems = Math.max(maxItems, n);
+        }
+        //rows range from fully aligned signals (the longest series) to no shared timestamps (all items)
+        return new DecodeEstimate(df.cols().size(), items, maxItems, items, inputBytes, (long) (inputBytes * compressionRatio));
+    }
+    
+    /**
+     * Get the number of value columns.
+     * 
+     * @return columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * Get the upper bound of the number of decoded values.
+     * 
+     * @return items
+     */
+    public long getItems() {
+        return items;
+    }
+    
+    /**
+     * Get the lower bound of the number of rows, when all signals share timestamps.
+     * 
+     * @return rows
+     */
+    public long getRowsLower() {
+        return rowsLower;
+    }
+    
+    /**
+     * Get the upper bound of the number of rows, when no signals share timestamps.
+     * 
+     * @return rows
+     */
+    public long getRowsUpper() {
+        return rowsUpper;
+    }
+    
+    /**
+     * Get the stored input bytes.
+     * 
+     * @return bytes
+     */
+    public long getInputBytes() {
+        return inputBytes;
+    }
+    
+    /**
+     * Get the estimated decompressed bytes.
+     * 
+     * @return bytes
+     */
+    public long getDecompressedBytes() {
+        return decompressedBytes;
+    }
+    
+    /**
+     * Get the estimated heap of the <code>objects()</code> query: a full width row array per row,
+     * the row time and the boxed values, on top of the decompressed data.  Uses the upper bound of
+     * rows, so it is safe for admission of outlier files.
+     * 
+     * @return bytes
+     */
+    public long getObjectsHeapBytes() {
+        return decompressedBytes + rowsUpper * (ROW_ARRAY_BYTES + REF_BYTES * (columns + 1) + INSTANT_BYTES) + items * BOXED_BYTES;
+    }
+    
+    /**
+     * Get the estimated heap of the <code>iterator()</code> query, which holds the decompressed
+     * data and one row at a time.
+     * 
+     * @return bytes
+     */
+    public long getIteratorHeapBytes() {
+        return decompressedBytes + ROW_ARRAY_BYTES + REF_BYTES * (columns + 1) + INSTANT_BYTES + columns * BOXED_BYTES;
+    }
+    
+    /**
+     * Get the estimated heap of columnar output with primitive values and times.
+     * 
+     * @return bytes
+     */
+    public long getColumnarHeapBytes() {
+        return decompressedBytes + items * 8 + rowsUpper * 8;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Estimate: columns=%d, items<=%d, rows=%d..%d, decompressed=%.1f MB, heap objects=%.1f MB, iterator=%.1f MB, columnar=%.1f MB",
+                columns, items, rowsLower, rowsUpper, decompressedBytes / 1048576d,
+                getObjectsHeapBytes() / 1048576d, getIteratorHeapBytes() / 1048576d, getColumnarHeapBytes() / 1048576d);
+    }
+}
@@ -0,0 +1,229 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+import com.exceeddata.sdk.vdata.binary.LittleEndianSeekableBytesReader;
+import com.exceeddata.sdk.vdata.data.VDataReader;
+import com.exceeddata.sdk.vdata.data.VDataReaderFactory;
+import com.exceeddata.sdk.vdata.series.VDataSeries;
+import com.exceeddata.sdk.vdata.series.VDataSeriesPair;
+
+/**
+ * A frame over vsw files that decodes each signal only when it is first accessed.
+ * 
+ * <p>Opening lists the signal names from the file headers only, so exploring a file of
+ * thousands of signals starts without decoding any of them.  A signal is decoded by a reader
+ * limited to the signals requested, and its pairs are materialized and kept for later access.
+ * Every load opens the files again through {@link AsyncFileSeekableReader}, so plain files are
+ * read positionally and never held in memory; base64 files are decoded once at open and kept.
+ * Each load is one pass of a reader over the files, so request several signals together with
+ * {@link #pairs(List)} to decode them in one pass.</p>
+ * 
+ * <p>SDK series are backed by consuming bucket cursors, so they are drained once into pair
+ * lists and the reader is closed; only the unmodifiable lists are served.  Signals are kept as
+ * stored (expand mode 'none').  Access is synchronized, and callers must not modify the
+ * returned pairs.</p>
+ *
+ */
+public final class LazyVswFrame implements Closeable {
+    private final List<String> paths;
+    private final byte[][] decoded;
+    private final List<String> names;
+    private final HashSet<String> nameSet;
+    private final String signalQueueMode;
+    private final Map<String, List<VDataSeriesPair>> loaded = new HashMap<>();
+    
+    private LazyVswFrame(final List<String> paths, final byte[][] decoded, final List<String> names, final String signalQueueMode) {
+        this.paths = paths;
+        this.decoded = decoded;
+        this.names = names;
+        this.nameSet = new HashSet<>(names);
+        this.signalQueueMode = signalQueueMode;
+    }
+    
+    /**
+     * Open a lazy frame, reading the signal names.
+     * 
+     * @param paths the input file paths
+     * @param base64Encoded whether the files are base64 encoded
+     * @param signalQueueMode the signal queue mode, or null for default
+     * @return the frame
+     * @throws IOException if occurs
+     */
+    public static LazyVswFrame open(final List<String> paths, final boolean base64Encoded, final String signalQueueMode) throws IOException {
+        final List<String> trimmed = new ArrayList<>(paths.size());
+        for (final String path : paths) {
+            trimmed.add(path.trim());
+        }
+        
+        byte[][] decoded = null;
+        if (base64Encoded) {
+            decoded = new byte[trimmed.size()][];
+            for (int i = 0; i < decoded.length; ++i) {
+                final Base64FileSeekableReader reader = new Base64FileSeekableReader(trimmed.get(i));
+                try {
+                    decoded[i] = reader.readBytes((int) reader.getLength());
+                } finally {
+                    reader.close();
+                }
+            }
+        }
+        
+        final List<BinarySeekableReader> seekables = seekables(trimmed, decoded);
+        try {
+            final List<String> names = Collections.unmodifiableList(Arrays.asList(VDataReader.getNames(seekables)));
+            return new LazyVswFrame(Collections.unmodifiableList(trimmed), decoded, names, signalQueueMode);
+        } finally {
+            close(seekables);
+        }
+    }
+    
+    private static List<BinarySeekableReader> seekables(final List<String> paths, final byte[][] decoded) throws IOException {
+        final List<BinarySeekableReader> seekables = new ArrayList<>(paths.size());
+        try {
+            for (int i = 0; i < paths.size(); ++i) {
+                seekables.add(decoded != null
+                        ? new LittleEndianSeekableBytesReader(decoded[i])
+                        : new AsyncFileSeekableReader(paths.get(i)));
+            }
+        } catch (IOException | RuntimeException e) {
+            close(seekables);
+            throw e;
+        }
+        return seekables;
+    }
+    
+    private static void close(final List<BinarySeekableReader> seekables) {
+        for (final BinarySeekableReader seekable : seekables) {
+            seekable.close();
+        }
+    }
+    
+    /**
+     * Get the signal names, without decoding.
+     * 
+     * @return list of names
+     */
+    public List<String> names() {
+        return names;
+    }
+    
+    /**
+     * Get the pairs of a signal, decoding it on first access.
+     * 
+     * @param name the signal name
+     * @return the unmodifiable pairs in time order, or null if the signal does not exist
+     * @throws IOException if occurs
+     */
+    public List<VDataSeriesPair> pairs(final String name) throws IOException {
+        return pairs(Collections.singletonList(name)).get(name);
+    }
+    
+    /**
+     * Get the pairs of signals, decoding the ones not accessed before in one pass.
+     * 
+     * @param signals the signal names
+     * @return map of name to unmodifiable pairs in the requested order, without signals that do not exist
+     * @throws IOException if occurs
+     */
+    public synchronized Map<String, List<VDataSeriesPair>> pairs(final List<String> signals) throws IOException {
+        final List<String> missing = new ArrayList<>();
+        for (final String signal : signals) {
+            if (!loaded.containsKey(signal) && nameSet.contains(signal) && !missing.contains(signal)) {
+                missing.add(signal);
+            }
+        }
+        if (missing.size() > 0) {
+            load(missing);
+        }
+        
+        final LinkedHashMap<String, List<VDataSeriesPair>> result = new LinkedHashMap<>();
+        for (final String signal : signals) {
+            final List<VDataSeriesPair> pairs = loaded.get(signal);
+            if (pairs != null) {
+                result.put(signal, pairs);
+            }
+        }
+        return result;
+    }
+    
+    private void load(final List<String> signals) throws IOException {
+        final List<BinarySeekableReader> seekables = seekables(paths, decoded);
+        VDataReader reader = null;
+        try {
+            reader = new VDataReaderFactory()
+                    .setDataReaders(seekables)
+                    .setSignals(signals)
+                    .setColumnExpandMode("none")
+                    .setSignalQueueMode(signalQueueMode)
+                    .open();
+            final Map<String, VDataSeries> smap = reader.df().smap();
+            for (final String signal : signals) {
+                //remember signals without data too, so they are not decoded again
+                final VDataSeries series = smap.get(signal);
+                loaded.put(signal, series != null ? Collections.unmodifiableList(series.pairs()) : null);
+            }
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+            close(seekables);
+        }
+    }
+    
+    /**
+     * Get the number of signals decoded so far.
+     * 
+     * @return the count
+     */
+    public synchronized int getLoadedCount() {
+        return loaded.size();
+    }
+    
+    @Override
+    public synchronized void close() {
+        loaded.clear();
+    }
+}
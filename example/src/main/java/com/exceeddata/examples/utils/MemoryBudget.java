@@ -0,0 +1,184 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+/**
+ * A process-wide memory budget for decode jobs.  Each job is admitted against its
+ * {@link DecodeEstimate}: with the <code>objects()</code> heap when it fits, downgraded to the
+ * streaming <code>iterator()</code> heap when only that fits, queued when the streaming heap
+ * fits the budget but not what is currently free, and rejected when it can never fit.
+ *
+ */
+public final class MemoryBudget {
+    
+    /**
+     * The admission decision.
+     */
+    public enum Decision {
+        /** run as requested */
+        ADMIT,
+        /** run with a streaming query instead */
+        DOWNGRADE,
+        /** wait for running jobs to release memory */
+        QUEUE,
+        /** the job does not fit even in an empty budget */
+        REJECT
+    }
+    
+    private final long budget;
+    private long reserved = 0;
+    
+    /**
+     * Construct a budget.
+     * 
+     * @param budget the budget in bytes
+     */
+    public MemoryBudget(final long budget) {
+        this.budget = budget;
+    }
+    
+    /**
+     * Decide the admission of a job against the memory free now, without reserving.
+     * 
+     * @param estimate the job estimate
+     * @return the decision
+     */
+    public synchronized Decision decide(final DecodeEstimate estimate) {
+        final long free = budget - reserved;
+        if (estimate.getObjectsHeapBytes() <= free) {
+            return Decision.ADMIT;
+        } else if (estimate.getIteratorHeapBytes() <= free) {
+            return Decision.DOWNGRADE;
+        } else if (estimate.getIteratorHeapBytes() <= budget) {
+            return Decision.QUEUE;
+        }
+        return Decision.REJECT;
+    }
+    
+    /**
+     * Reserve memory for a job, waiting while it is queued.
+     * 
+     * @param estimate the job estimate
+     * @param timeoutMillis the maximum time to wait while queued, 0 for no waiting
+     * @return the reservation, or null if rejected or timed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized Reservation acquire(final DecodeEstimate estimate, final long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            final Decision decision = decide(estimate);
+            switch (decision) {
+                case ADMIT:
+                    return reserve(estimate.getObjectsHeapBytes(), false);
+                case DOWNGRADE:
+                    return reserve(estimate.getIteratorHeapBytes(), true);
+                case REJECT:
+                    return null;
+                default:
+                    final long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        return null;
+                    }
+                    wait(wait);
+            }
+        }
+    }
+    
+    private Reservation reserve(final long bytes, final boolean downgraded) {
+        reserved += bytes;
+        return new Reservation(bytes, downgraded);
+    }
+    
+    private synchronized void release(final long bytes) {
+        reserved -= bytes;
+        notifyAll();
+    }
+    
+    /**
+     * Get the budget.
+     * 
+     * @return bytes
+     */
+    public long getBudget() {
+        return budget;
+    }
+    
+    /**
+     * Get the memory reserved by admitted jobs.
+     * 
+     * @return bytes
+     */
+    public synchronized long getReserved() {
+        return reserved;
+    }
+    
+    /**
+     * Memory reserved for an admitted job, released on close.
+     */
+    public final class Reservation implements AutoCloseable {
+        private final long bytes;
+        private final boolean downgraded;
+        private boolean released = false;
+        
+        private Reservation(final long bytes, final boolean downgraded) {
+            this.bytes = bytes;
+            this.downgraded = downgraded;
+        }
+        
+        /**
+         * Get the reserved bytes.
+         * 
+         * @return bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+        
+        /**
+         * Check whether the job must use a streaming query.
+         * 
+         * @return true if downgraded
+         */
+        public boolean isDowngraded() {
+            return downgraded;
+        }
+        
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(bytes);
+            }
+        }
+    }
+}
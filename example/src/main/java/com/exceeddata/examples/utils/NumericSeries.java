@@ -0,0 +1,141 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import com.exceeddata.sdk.vdata.series.VDataSeries;
+import com.exceeddata.sdk.vdata.series.VDataSeriesPair;
+
+/**
+ * A numeric signal held as primitive time and value columns, with time in micros since epoch.
+ *
+ */
+public final class NumericSeries {
+    private final String name;
+    private long[] times;
+    private double[] values;
+    private int size = 0;
+    
+    /**
+     * Construct an empty series.
+     * 
+     * @param name the name
+     * @param capacity the initial capacity
+     */
+    public NumericSeries(final String name, final int capacity) {
+        this.name = name;
+        this.times = new long[Math.max(16, capacity)];
+        this.values = new double[times.length];
+    }
+    
+    /**
+     * Collect the numeric samples of a series.  Booleans are taken as 1 and 0, and
+     * non-numeric values are skipped.
+     * 
+     * @param series the series
+     * @return the numeric series
+     */
+    public static NumericSeries of(final VDataSeries series) {
+        final NumericSeries numeric = new NumericSeries(series.name(), 1024);
+        final Iterator<VDataSeriesPair> iter = series.iterator();
+        while (iter.hasNext()) {
+            final VDataSeriesPair pair = iter.next();
+            final Object value = pair.getValue();
+            final Instant time = pair.getTime();
+            final long micros = time.getEpochSecond() * 1000000L + time.getNano() / 1000;
+            if (value instanceof Number) {
+                numeric.add(micros, ((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                numeric.add(micros, ((Boolean) value) ? 1d : 0d);
+            }
+        }
+        return numeric;
+    }
+    
+    /**
+     * Add a sample.  Samples must be added in time order.
+     * 
+     * @param micros the time in micros since epoch
+     * @param value the value
+     */
+    public void add(final long micros, final double value) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        times[size] = micros;
+        values[size] = value;
+        ++size;
+    }
+    
+    /**
+     * Get the name.
+     * 
+     * @return the name
+     */
+    public String name() {
+        return name;
+    }
+    
+    /**
+     * Get the number of samples.
+     * 
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Get the sample time.
+     * 
+     * @param i the sample index
+     * @return micros since epoch
+     */
+    public long time(final int i) {
+        return times[i];
+    }
+    
+    /**
+     * Get the sample value.
+     * 
+     * @param i the sample index
+     * @return the value
+     */
+    public double value(final int i) {
+        return values[i];
+    }
+}
@@ -0,0 +1,152 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.util.Arrays;
+
+/**
+ * Resampler of numeric series onto a fixed-rate grid.  The carry-forward state is one sample
+ * cursor per series, so output is produced in chunks straight into a row-major
+ * <code>double[]</code> without boxing or copying rows per tick.  Ticks with no value are NaN.
+ *
+ */
+public final class Resampler {
+    
+    /**
+     * The interpolation mode.
+     */
+    public enum Mode {
+        /** the last sample at or before the tick, i.e. forward fill */
+        PREVIOUS,
+        /** linear interpolation between the samples around the tick, holding the last sample after the end */
+        LINEAR,
+        /** the sample closest in time to the tick */
+        NEAREST;
+        
+        /**
+         * Parse a mode name, case insensitive.
+         * 
+         * @param name the name
+         * @return the mode
+         */
+        public static Mode parse(final String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+    
+    private final NumericSeries[] series;
+    private final Mode mode;
+    private final int[] cursors;
+    
+    /**
+     * Construct a resampler.
+     * 
+     * @param series the series, one output column each
+     * @param mode the interpolation mode
+     */
+    public Resampler(final NumericSeries[] series, final Mode mode) {
+        this.series = series;
+        this.mode = mode;
+        this.cursors = new int[series.length];
+        Arrays.fill(cursors, -1);
+    }
+    
+    /**
+     * Get the number of output columns.
+     * 
+     * @return the width
+     */
+    public int width() {
+        return series.length;
+    }
+    
+    /**
+     * Resample a chunk of ticks into <code>out[row * width + col]</code>.  Successive calls must
+     * move forward in time, as the series cursors only advance.
+     * 
+     * @param startMicros the time of the first tick
+     * @param intervalMicros the tick interval
+     * @param rows the number of ticks
+     * @param out the output, at least <code>rows * width</code> long
+     */
+    public void resample(final long startMicros, final long intervalMicros, final int rows, final double[] out) {
+        final int width = series.length;
+        for (int col = 0; col < width; ++col) {
+            final NumericSeries s = series[col];
+            final int n = s.size();
+            int j = cursors[col];
+            for (int row = 0; row < rows; ++row) {
+                final long t = startMicros + row * intervalMicros;
+                while (j + 1 < n && s.time(j + 1) <= t) {
+                    ++j;
+                }
+                out[row * width + col] = valueAt(s, j, t);
+            }
+            cursors[col] = j;
+        }
+    }
+    
+    /**
+     * Get the value at time t, where j is the last sample at or before t, or -1.
+     */
+    private double valueAt(final NumericSeries s, final int j, final long t) {
+        final int n = s.size();
+        switch (mode) {
+            case PREVIOUS:
+                return j >= 0 ? s.value(j) : Double.NaN;
+            case LINEAR: {
+                if (j < 0) {
+                    return Double.NaN;
+                }
+                if (j + 1 >= n || s.time(j) == t) {
+                    return s.value(j);
+                }
+                final long t0 = s.time(j), t1 = s.time(j + 1);
+                final double v0 = s.value(j);
+                return v0 + (s.value(j + 1) - v0) * (double) (t - t0) / (double) (t1 - t0);
+            }
+            default: {
+                if (n == 0) {
+                    return Double.NaN;
+                }
+                if (j < 0) {
+                    return s.value(0);
+                }
+                if (j + 1 >= n) {
+                    return s.value(j);
+                }
+                return t - s.time(j) <= s.time(j + 1) - t ? s.value(j) : s.value(j + 1);
+            }
+        }
+    }
+}
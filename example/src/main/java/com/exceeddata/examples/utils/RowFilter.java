@@ -0,0 +1,121 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Streaming filter that passes rows matching a {@link RowPredicate}, plus the rows within
+ * a time padding before and after each match.  Rows must be offered in time order.
+ * 
+ * <p>Sparse rows carry only the signals updated at their time, so the predicate is tested
+ * against the last value of each referenced column, forward filled across rows.  A column
+ * is null only until its first value.</p>
+ * 
+ * @param <T> the row type
+ */
+public final class RowFilter<T> {
+    private final RowPredicate predicate;
+    private final int[] columns;
+    private final Object[] last;
+    private final long paddingMicros;
+    private final ArrayDeque<T> pending = new ArrayDeque<>();
+    private final ArrayDeque<Long> pendingTimes = new ArrayDeque<>();
+    private long emitUntil = Long.MIN_VALUE;
+    
+    /**
+     * Construct a filter.
+     * 
+     * @param predicate the predicate
+     * @param paddingMillis the context padding in milliseconds before and after a match, 0 for matches only
+     */
+    public RowFilter(final RowPredicate predicate, final long paddingMillis) {
+        this.predicate = predicate;
+        this.columns = predicate.columns();
+        this.last = new Object[columns.length > 0 ? columns[columns.length - 1] + 1 : 0];
+        this.paddingMicros = paddingMillis * 1000L;
+    }
+    
+    /**
+     * Offer the next row.  Rows that are to be output, in order, are appended to <code>out</code>.
+     * 
+     * @param time the row time
+     * @param values the row values, of which the referenced columns update the tested values
+     * @param row the row
+     * @param out the output list
+     * @return the number of rows appended
+     */
+    public int offer(final Instant time, final Object[] values, final T row, final List<T> out) {
+        final long micros = toMicros(time);
+        for (final int c : columns) {
+            if (values[c] != null) {
+                last[c] = values[c];
+            }
+        }
+        if (predicate.test(last)) {
+            int n = 0;
+            while (!pending.isEmpty()) {
+                if (pendingTimes.pollFirst() >= micros - paddingMicros) {
+                    out.add(pending.pollFirst());
+                    ++n;
+                } else {
+                    pending.pollFirst();
+                }
+            }
+            out.add(row);
+            emitUntil = micros + paddingMicros;
+            return n + 1;
+        }
+        
+        if (micros <= emitUntil) {
+            out.add(row);
+            return 1;
+        }
+        
+        if (paddingMicros > 0) {
+            while (!pendingTimes.isEmpty() && pendingTimes.peekFirst() < micros - paddingMicros) {
+                pendingTimes.pollFirst();
+                pending.pollFirst();
+            }
+            pending.addLast(row);
+            pendingTimes.addLast(micros);
+        }
+        return 0;
+    }
+    
+    private static long toMicros(final Instant time) {
+        return time.getEpochSecond() * 1000000L + time.getNano() / 1000;
+    }
+}
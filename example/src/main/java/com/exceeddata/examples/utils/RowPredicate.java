@@ -0,0 +1,348 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A row predicate compiled from a filter expression such as
+ * <code>VehicleSpeed &gt; 120 &amp;&amp; (Brake == 1 || Gear == 'R')</code>.
+ * 
+ * <p>Supported are the comparisons <code>&gt; &gt;= &lt; &lt;= == !=</code> between a signal
+ * name and a number or a quoted string, combined with <code>&amp;&amp;</code>, <code>||</code>,
+ * <code>!</code> and parentheses.  Signal names are resolved to column positions once at
+ * compile time, so evaluation is an array lookup and a primitive comparison.</p>
+ * 
+ * <p>Null follows SQL three-valued logic.  A comparison against a null (absent) value, or a
+ * number comparison against a non-numeric value, is unknown rather than false, so neither
+ * <code>Gear != 'R'</code> nor <code>!(Gear == 'R')</code> matches a row without a gear.
+ * <code>&amp;&amp;</code> and <code>||</code> are false and true whenever one side decides
+ * it, and a row matches only if the whole expression is true.</p>
+ *
+ */
+public abstract class RowPredicate {
+    private static final int FALSE = 0, TRUE = 1, UNKNOWN = 2;
+    
+    private int[] columns;
+    
+    /**
+     * Test a row of values.
+     * 
+     * @param values the row values, aligned to the columns the predicate was compiled with
+     * @return true if matched, false if not matched or unknown
+     */
+    public final boolean test(final Object[] values) {
+        return eval(values) == TRUE;
+    }
+    
+    /**
+     * Get the positions of the columns referenced by the expression.
+     * 
+     * @return the sorted column positions
+     */
+    public int[] columns() {
+        return columns.clone();
+    }
+    
+    abstract int eval(Object[] values);
+    
+    /**
+     * Compile a filter expression.
+     * 
+     * @param expression the filter expression
+     * @param cols the column names, aligned to the positions of the row values to test
+     * @return the predicate
+     * @throws IOException if the expression is invalid or refers to an unknown column
+     */
+    public static RowPredicate compile(final String expression, final List<String> cols) throws IOException {
+        final Parser parser = new Parser(expression, cols);
+        final RowPredicate predicate = parser.parseOr();
+        parser.skipSpaces();
+        if (parser.pos < expression.length()) {
+            throw new IOException("Error: unexpected filter input at " + parser.pos + ": " + expression);
+        }
+        
+        predicate.columns = new int[parser.columns.size()];
+        int i = 0;
+        for (final Integer index : parser.columns) {
+            predicate.columns[i++] = index;
+        }
+        return predicate;
+    }
+    
+    private static final int GT = 0, GE = 1, LT = 2, LE = 3, EQ = 4, NE = 5;
+    
+    private static int compare(final int op, final int cmp) {
+        final boolean b;
+        switch (op) {
+            case GT: b = cmp > 0; break;
+            case GE: b = cmp >= 0; break;
+            case LT: b = cmp < 0; break;
+            case LE: b = cmp <= 0; break;
+            case EQ: b = cmp == 0; break;
+            default: b = cmp != 0;
+        }
+        return b ? TRUE : FALSE;
+    }
+    
+    private static final class NumberCompare extends RowPredicate {
+        private final int index;
+        private final int op;
+        private final double constant;
+        
+        NumberCompare(final int index, final int op, final double constant) {
+            this.index = index;
+            this.op = op;
+            this.constant = constant;
+        }
+        
+        @Override
+        int eval(final Object[] values) {
+            final Object o = values[index];
+            final double d;
+            if (o instanceof Number) {
+                d = ((Number) o).doubleValue();
+            } else if (o instanceof Boolean) {
+                d = ((Boolean) o) ? 1d : 0d;
+            } else {
+                return UNKNOWN;
+            }
+            final boolean b;
+            switch (op) {
+                case GT: b = d > constant; break;
+                case GE: b = d >= constant; break;
+                case LT: b = d < constant; break;
+                case LE: b = d <= constant; break;
+                case EQ: b = d == constant; break;
+                default: b = d != constant;
+            }
+            return b ? TRUE : FALSE;
+        }
+    }
+    
+    private static final class StringCompare extends RowPredicate {
+        private final int index;
+        private final int op;
+        private final String constant;
+        
+        StringCompare(final int index, final int op, final String constant) {
+            this.index = index;
+            this.op = op;
+            this.constant = constant;
+        }
+        
+        @Override
+        int eval(final Object[] values) {
+            final Object o = values[index];
+            return o != null ? compare(op, o.toString().compareTo(constant)) : UNKNOWN;
+        }
+    }
+    
+    private static final class And extends RowPredicate {
+        private final RowPredicate left, right;
+        
+        And(final RowPredicate left, final RowPredicate right) {
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        int eval(final Object[] values) {
+            final int l = left.eval(values);
+            if (l == FALSE) {
+                return FALSE;
+            }
+            final int r = right.eval(values);
+            return r == FALSE ? FALSE : l == TRUE && r == TRUE ? TRUE : UNKNOWN;
+        }
+    }
+    
+    private static final class Or extends RowPredicate {
+        private final RowPredicate left, right;
+        
+        Or(final RowPredicate left, final RowPredicate right) {
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        int eval(final Object[] values) {
+            final int l = left.eval(values);
+            if (l == TRUE) {
+                return TRUE;
+            }
+            final int r = right.eval(values);
+            return r == TRUE ? TRUE : l == FALSE && r == FALSE ? FALSE : UNKNOWN;
+        }
+    }
+    
+    private static final class Not extends RowPredicate {
+        private final RowPredicate inner;
+        
+        Not(final RowPredicate inner) {
+            this.inner = inner;
+        }
+        
+        @Override
+        int eval(final Object[] values) {
+            final int v = inner.eval(values);
+            return v == UNKNOWN ? UNKNOWN : v == TRUE ? FALSE : TRUE;
+        }
+    }
+    
+    /**
+     * Recursive descent parser: or := and ('||' and)*, and := unary ('&amp;&amp;' unary)*,
+     * unary := '!' unary | '(' or ')' | name op literal.
+     */
+    private static final class Parser {
+        private final String s;
+        private final List<String> cols;
+        private final TreeSet<Integer> columns = new TreeSet<>();
+        private int pos = 0;
+        
+        Parser(final String s, final List<String> cols) {
+            this.s = s;
+            this.cols = cols;
+        }
+        
+        RowPredicate parseOr() throws IOException {
+            RowPredicate left = parseAnd();
+            while (consume("||")) {
+                left = new Or(left, parseAnd());
+            }
+            return left;
+        }
+        
+        RowPredicate parseAnd() throws IOException {
+            RowPredicate left = parseUnary();
+            while (consume("&&")) {
+                left = new And(left, parseUnary());
+            }
+            return left;
+        }
+        
+        RowPredicate parseUnary() throws IOException {
+            if (consume("!")) {
+                return new Not(parseUnary());
+            }
+            if (consume("(")) {
+                final RowPredicate inner = parseOr();
+                if (!consume(")")) {
+                    throw error();
+                }
+                return inner;
+            }
+            
+            final String name = parseName();
+            final int index = cols.indexOf(name);
+            if (index < 0) {
+                throw new IOException("Error: unknown filter column: " + name);
+            }
+            columns.add(index);
+            
+            final int op;
+            if (consume(">=")) {
+                op = GE;
+            } else if (consume("<=")) {
+                op = LE;
+            } else if (consume("==")) {
+                op = EQ;
+            } else if (consume("!=")) {
+                op = NE;
+            } else if (consume(">")) {
+                op = GT;
+            } else if (consume("<")) {
+                op = LT;
+            } else if (consume("=")) {
+                op = EQ;
+            } else {
+                throw error();
+            }
+            
+            skipSpaces();
+            if (pos < s.length() && (s.charAt(pos) == '\'' || s.charAt(pos) == '"')) {
+                final char quote = s.charAt(pos);
+                final int end = s.indexOf(quote, pos + 1);
+                if (end < 0) {
+                    throw error();
+                }
+                final String literal = s.substring(pos + 1, end);
+                pos = end + 1;
+                return new StringCompare(index, op, literal);
+            }
+            
+            final String literal = parseName();
+            if ("true".equalsIgnoreCase(literal) || "false".equalsIgnoreCase(literal)) {
+                return new NumberCompare(index, op, "true".equalsIgnoreCase(literal) ? 1d : 0d);
+            }
+            try {
+                return new NumberCompare(index, op, Double.parseDouble(literal));
+            } catch (NumberFormatException e) {
+                return new StringCompare(index, op, literal);
+            }
+        }
+        
+        String parseName() throws IOException {
+            skipSpaces();
+            final int start = pos;
+            while (pos < s.length() && " \t<>=!&|()'\"".indexOf(s.charAt(pos)) < 0) {
+                ++pos;
+            }
+            if (start == pos) {
+                throw error();
+            }
+            return s.substring(start, pos);
+        }
+        
+        boolean consume(final String token) {
+            skipSpaces();
+            if (s.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+        
+        void skipSpaces() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+                ++pos;
+            }
+        }
+        
+        IOException error() {
+            return new IOException("Error: invalid filter expression at " + pos + ": " + s);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import com.exceeddata.sdk.vdata.data.VDataRow;
+
+/**
+ * Writer of decoded rows to an output format.
+ *
+ */
+public interface RowWriter extends Closeable {
+    
+    /**
+     * Write the header. Must be called once before any row.
+     * 
+     * @param cols the column names including the time column
+     * @throws IOException if occurs
+     */
+    void writeHeader(List<String> cols) throws IOException;
+    
+    /**
+     * Write a row of objects, with the row time as {@link java.time.Instant} in the first column.
+     * 
+     * @param objs the row of objects
+     * @throws IOException if occurs
+     */
+    void write(Object[] objs) throws IOException;
+    
+    /**
+     * Write a row.
+     * 
+     * @param row the row
+     * @throws IOException if occurs
+     */
+    void write(VDataRow row) throws IOException;
+    
+    /**
+     * Get the number of bytes written so far.
+     * 
+     * @return bytes
+     */
+    long getBytes();
+}
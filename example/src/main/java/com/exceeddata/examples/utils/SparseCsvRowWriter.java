@@ -0,0 +1,119 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.time.Instant;
+import java.util.List;
+
+import com.exceeddata.sdk.vdata.data.VDataRow;
+
+/**
+ * A {@link RowWriter} of CSV format that buffers rows in a {@link SparseRowBatch}, so only the
+ * present cells of wide, mostly empty rows are held and formatted.  The output is the same as
+ * {@link CsvRowWriter}.
+ *
+ */
+public final class SparseCsvRowWriter implements RowWriter {
+    private final OutputStream out;
+    private final DecimalFormat fmt;
+    private final int batchRows;
+    private final StringBuilder sb = new StringBuilder(4096);
+    private SparseRowBatch batch = null;
+    private long bytes = 0;
+    
+    /**
+     * Construct a writer.
+     * 
+     * @param out the output stream
+     * @param fmt the decimal format
+     * @param batchRows the number of rows per batch
+     */
+    public SparseCsvRowWriter(final OutputStream out, final DecimalFormat fmt, final int batchRows) {
+        this.out = out;
+        this.fmt = fmt;
+        this.batchRows = Math.max(1, batchRows);
+    }
+    
+    @Override
+    public void writeHeader(final List<String> cols) throws IOException {
+        batch = new SparseRowBatch(cols.size() - 1, batchRows);
+        write(CsvOutput.headerToString(cols, sb));
+    }
+
+    @Override
+    public void write(final Object[] objs) throws IOException {
+        batch.add((Instant) objs[0], objs, 1);
+        if (batch.isFull()) {
+            flush();
+        }
+    }
+
+    @Override
+    public void write(final VDataRow row) throws IOException {
+        batch.add(row.getTime(), row.getValues(), 0);
+        if (batch.isFull()) {
+            flush();
+        }
+    }
+    
+    private void flush() throws IOException {
+        for (int r = 0, n = batch.getRows(); r < n; ++r) {
+            write(CsvOutput.sparseRowToString(batch, r, sb, fmt));
+        }
+        batch.clear();
+    }
+    
+    private void write(final String s) throws IOException {
+        final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.write(b);
+        bytes += b.length;
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (batch != null) {
+            flush();
+            batch = null;
+        }
+        out.close();
+    }
+}
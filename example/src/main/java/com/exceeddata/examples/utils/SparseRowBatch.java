@@ -0,0 +1,314 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * A batch of sparse rows stored as a presence bitmap per row plus the present values packed
+ * in row order.  Wide rows where only a few signals update per tick take memory for the
+ * present values only, and consumers can walk the present cells of a row through
+ * {@link #nextPresent(int, int)} without scanning the empty ones.  Column indexes are of the
+ * value columns, excluding the time column.
+ *
+ */
+public final class SparseRowBatch {
+    private static final byte K_DOUBLE = 1;
+    private static final byte K_FLOAT = 2;
+    private static final byte K_LONG = 3;
+    private static final byte K_INT = 4;
+    private static final byte K_SHORT = 5;
+    private static final byte K_BYTE = 6;
+    private static final byte K_BOOLEAN = 7;
+    private static final byte K_OBJECT = 8;
+    
+    private final int ncols;
+    private final int words;
+    private final int capacity;
+    private final long[] times;
+    private final long[] presence;
+    private final int[] offsets;
+    private long[] packed;
+    private byte[] kinds;
+    private Object[] objects;
+    private int nobjects = 0;
+    private int rows = 0;
+    
+    /**
+     * Construct a batch.
+     * 
+     * @param ncols the number of value columns
+     * @param capacity the maximum number of rows
+     */
+    public SparseRowBatch(final int ncols, final int capacity) {
+        this.ncols = ncols;
+        this.words = (ncols + 63) >>> 6;
+        this.capacity = capacity;
+        this.times = new long[capacity];
+        this.presence = new long[capacity * words];
+        this.offsets = new int[capacity + 1];
+        this.packed = new long[Math.max(16, capacity * 4)];
+        this.kinds = new byte[packed.length];
+        this.objects = new Object[16];
+    }
+    
+    /**
+     * Add a row.  The values are read from <code>values[offset]</code> for <code>ncols</code> columns.
+     * 
+     * @param time the row time
+     * @param values the values array
+     * @param offset the position of the first value column in the array
+     * @throws IllegalStateException if the batch is full
+     */
+    public void add(final Instant time, final Object[] values, final int offset) {
+        if (rows == capacity) {
+            throw new IllegalStateException("batch is full");
+        }
+        
+        final int base = rows * words;
+        int k = offsets[rows];
+        times[rows] = time.getEpochSecond() * 1000000L + time.getNano() / 1000;
+        for (int c = 0; c < ncols; ++c) {
+            final Object o = values[offset + c];
+            if (o == null) {
+                continue;
+            }
+            presence[base + (c >>> 6)] |= 1L << c;
+            if (k == packed.length) {
+                packed = Arrays.copyOf(packed, k * 2);
+                kinds = Arrays.copyOf(kinds, k * 2);
+            }
+            if (o instanceof Double) {
+                kinds[k] = K_DOUBLE;
+                packed[k] = Double.doubleToRawLongBits((Double) o);
+            } else if (o instanceof Float) {
+                kinds[k] = K_FLOAT;
+                packed[k] = Double.doubleToRawLongBits((Float) o);
+            } else if (o instanceof Long) {
+                kinds[k] = K_LONG;
+                packed[k] = (Long) o;
+            } else if (o instanceof Integer) {
+                kinds[k] = K_INT;
+                packed[k] = (Integer) o;
+            } else if (o instanceof Short) {
+                kinds[k] = K_SHORT;
+                packed[k] = (Short) o;
+            } else if (o instanceof Byte) {
+                kinds[k] = K_BYTE;
+                packed[k] = (Byte) o;
+            } else if (o instanceof Boolean) {
+                kinds[k] = K_BOOLEAN;
+                packed[k] = ((Boolean) o) ? 1 : 0;
+            } else {
+                if (nobjects == objects.length) {
+                    objects = Arrays.copyOf(objects, nobjects * 2);
+                }
+                kinds[k] = K_OBJECT;
+                packed[k] = nobjects;
+                objects[nobjects++] = o;
+            }
+            ++k;
+        }
+        offsets[++rows] = k;
+    }
+    
+    /**
+     * Clear the batch for reuse.
+     */
+    public void clear() {
+        Arrays.fill(presence, 0, rows * words, 0L);
+        Arrays.fill(objects, 0, nobjects, null);
+        nobjects = 0;
+        rows = 0;
+    }
+    
+    /**
+     * Check whether the batch is full.
+     * 
+     * @return true if full
+     */
+    public boolean isFull() {
+        return rows == capacity;
+    }
+    
+    /**
+     * Get the number of rows.
+     * 
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Get the number of value columns.
+     * 
+     * @return columns
+     */
+    public int getColumns() {
+        return ncols;
+    }
+    
+    /**
+     * Get the number of present values in all rows.
+     * 
+     * @return values
+     */
+    public int getValueCount() {
+        return offsets[rows];
+    }
+    
+    /**
+     * Get the row time in micros since epoch.
+     * 
+     * @param row the row
+     * @return micros
+     */
+    public long getTimeMicros(final int row) {
+        return times[row];
+    }
+    
+    /**
+     * Get the row time.
+     * 
+     * @param row the row
+     * @return the time
+     */
+    public Instant getTime(final int row) {
+        return Instant.ofEpochSecond(Math.floorDiv(times[row], 1000000L), Math.floorMod(times[row], 1000000L) * 1000L);
+    }
+    
+    /**
+     * Check whether a cell is empty.
+     * 
+     * @param row the row
+     * @param col the value column
+     * @return true if empty
+     */
+    public boolean isEmptyAt(final int row, final int col) {
+        return (presence[row * words + (col >>> 6)] & (1L << col)) == 0;
+    }
+    
+    /**
+     * Get the number of present values in a row.
+     * 
+     * @param row the row
+     * @return values
+     */
+    public int getPresentCount(final int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+    
+    /**
+     * Get the next present column of a row at or after a column.
+     * 
+     * @param row the row
+     * @param col the value column to start from
+     * @return the present column, or -1 if none
+     */
+    public int nextPresent(final int row, final int col) {
+        if (col >= ncols) {
+            return -1;
+        }
+        final int base = row * words;
+        int w = col >>> 6;
+        long bits = presence[base + w] & (-1L << col);
+        while (bits == 0) {
+            if (++w == words) {
+                return -1;
+            }
+            bits = presence[base + w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(bits);
+    }
+    
+    /**
+     * Get a numeric value as double without boxing.
+     * 
+     * @param row the row
+     * @param col the value column
+     * @return the value, or NaN if empty or not numeric
+     */
+    public double getDouble(final int row, final int col) {
+        if (isEmptyAt(row, col)) {
+            return Double.NaN;
+        }
+        final int k = index(row, col);
+        switch (kinds[k]) {
+            case K_DOUBLE:
+            case K_FLOAT: return Double.longBitsToDouble(packed[k]);
+            case K_OBJECT: return Double.NaN;
+            default: return packed[k];
+        }
+    }
+    
+    /**
+     * Get a value boxed to its original type.
+     * 
+     * @param row the row
+     * @param col the value column
+     * @return the value, or null if empty
+     */
+    public Object getObject(final int row, final int col) {
+        if (isEmptyAt(row, col)) {
+            return null;
+        }
+        final int k = index(row, col);
+        final long v = packed[k];
+        switch (kinds[k]) {
+            case K_DOUBLE: return Double.longBitsToDouble(v);
+            case K_FLOAT: return (float) Double.longBitsToDouble(v);
+            case K_LONG: return v;
+            case K_INT: return (int) v;
+            case K_SHORT: return (short) v;
+            case K_BYTE: return (byte) v;
+            case K_BOOLEAN: return v != 0;
+            default: return objects[(int) v];
+        }
+    }
+    
+    /**
+     * Get the packed index of a present cell, from the count of present cells before it in the row.
+     */
+    private int index(final int row, final int col) {
+        final int base = row * words;
+        final int w = col >>> 6;
+        int rank = 0;
+        for (int i = 0; i < w; ++i) {
+            rank += Long.bitCount(presence[base + i]);
+        }
+        rank += Long.bitCount(presence[base + w] & ((1L << col) - 1));
+        return offsets[row] + rank;
+    }
+}
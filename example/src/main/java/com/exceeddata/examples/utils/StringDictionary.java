@@ -0,0 +1,178 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A dictionary of distinct string values with dense <code>int</code> codes.
+ * 
+ * <p>Enum-like string signals (gear, state machine states) repeat a handful of values
+ * across millions of rows.  Encoding such a column into codes keeps one
+ * <code>String</code> per distinct value, and makes equality checks and grouping
+ * integer comparisons.</p>
+ *
+ */
+public final class StringDictionary implements Serializable {
+    private static final long serialVersionUID = -4790563141508312471L;
+    
+    /** The code of null values. */
+    public static final int NULL_CODE = -1;
+    
+    private final HashMap<String, Integer> codes = new HashMap<>();
+    private final ArrayList<String> values = new ArrayList<>();
+    
+    /**
+     * Get the code of a value, adding the value if it is not yet in the dictionary.
+     * 
+     * @param value the string value
+     * @return the code, or {@link #NULL_CODE} for null
+     */
+    public int encode(final String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        final Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        final int c = values.size();
+        codes.put(value, c);
+        values.add(value);
+        return c;
+    }
+    
+    /**
+     * Get the code of a value without adding it.
+     * 
+     * @param value the string value
+     * @return the code, or {@link #NULL_CODE} if null or not in the dictionary
+     */
+    public int lookup(final String value) {
+        final Integer code = value != null ? codes.get(value) : null;
+        return code != null ? code : NULL_CODE;
+    }
+    
+    /**
+     * Get the value of a code.
+     * 
+     * @param code the code
+     * @return the string value, or null for {@link #NULL_CODE}
+     */
+    public String decode(final int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+    
+    /**
+     * Get the number of distinct values.
+     * 
+     * @return size
+     */
+    public int size() {
+        return values.size();
+    }
+    
+    /**
+     * Get the distinct values in code order.
+     * 
+     * @return list of values
+     */
+    public List<String> values() {
+        return values;
+    }
+    
+    /**
+     * Encode a column of rows into codes.
+     * 
+     * @param rows the rows
+     * @param col the column index
+     * @return the codes, or null if the column holds non-string values
+     */
+    public int[] encodeColumn(final Object[][] rows, final int col) {
+        //check first, so a non-string column leaves the dictionary unchanged
+        for (final Object[] row : rows) {
+            final Object o = row[col];
+            if (o != null && !(o instanceof String)) {
+                return null;
+            }
+        }
+        final int[] result = new int[rows.length];
+        for (int r = 0; r < rows.length; ++r) {
+            result[r] = encode((String) rows[r][col]);
+        }
+        return result;
+    }
+    
+    /**
+     * Replace the values of a string column with the dictionary values, so that equal
+     * strings in the column share one instance.  The column is left unchanged if it holds
+     * non-string values or more than <code>maxDistinct</code> distinct values.
+     * 
+     * @param rows the rows
+     * @param col the column index
+     * @param maxDistinct the maximum number of distinct values to add
+     * @return true if the column was replaced
+     */
+    public boolean canonicalizeColumn(final Object[][] rows, final int col, final int maxDistinct) {
+        final int start = values.size();
+        final int[] result = new int[rows.length];
+        for (int r = 0; r < rows.length; ++r) {
+            final Object o = rows[r][col];
+            if (o != null && !(o instanceof String)) {
+                truncate(start);
+                return false;
+            }
+            result[r] = encode((String) o);
+            if (values.size() - start > maxDistinct) {
+                truncate(start);
+                return false;
+            }
+        }
+        for (int r = 0; r < rows.length; ++r) {
+            rows[r][col] = decode(result[r]);
+        }
+        return true;
+    }
+    
+    /**
+     * Remove the values added after the given size.
+     */
+    private void truncate(final int size) {
+        for (int i = values.size() - 1; i >= size; --i) {
+            codes.remove(values.remove(i));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,488 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.exceeddata.sdk.vdata.data.VDataMeta;
+
+/**
+ * A memory-bounded cache of decoded query results, for services that answer the same
+ * (files, signals, modes, window) queries repeatedly.
+ * 
+ * <p>Results are stored in a compact columnar form: time as <code>long</code> nanos,
+ * numeric columns as primitive arrays with a null bitmap, and string columns as
+ * {@link StringDictionary} codes.  A request for a window inside a cached window is
+ * served by slicing the cached rows, so dashboards zooming into a range do not decode
+ * again.  Entries expire after a TTL and are evicted least-recently-used first when the
+ * estimated size exceeds the bound.</p>
+ *
+ */
+public final class VDataResultCache {
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final LinkedHashMap<Window, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    
+    /**
+     * Construct a cache.
+     * 
+     * @param maxBytes the maximum estimated bytes held
+     * @param ttlMillis the time to live of an entry in milliseconds, 0 for no expiry
+     */
+    public VDataResultCache(final long maxBytes, final long ttlMillis) {
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+    }
+    
+    /**
+     * Build a cache key.  Files are identified by path, size and modification time, and
+     * optionally by their vData meta storage and query times.
+     * 
+     * @param paths the input file paths
+     * @param metas the file metas in path order, or null
+     * @param signals the selected signals, null or empty for all
+     * @param columnExpandMode the column expand mode
+     * @param signalQueueMode the signal queue mode
+     * @param query the query method and its parameters, e.g. "objects:0:0" or "sampling:10"
+     * @return the key
+     * @throws IOException if a file cannot be accessed
+     */
+    public static Key key(
+            final List<String> paths,
+            final List<VDataMeta> metas,
+            final Collection<String> signals,
+            final String columnExpandMode,
+            final String signalQueueMode,
+            final String query) throws IOException {
+        final StringBuilder sb = new StringBuilder(256);
+        for (int i = 0, s = paths.size(); i < s; ++i) {
+            final Path p = Paths.get(paths.get(i));
+            sb.append(p.toAbsolutePath()).append('|')
+              .append(Files.size(p)).append('|')
+              .append(Files.getLastModifiedTime(p).toMillis());
+            if (metas != null) {
+                final VDataMeta meta = metas.get(i);
+                sb.append('|').append(meta.getStorageStartTime())
+                  .append('|').append(meta.getStorageEndTime())
+                  .append('|').append(meta.getQueryStartTime())
+                  .append('|').append(meta.getQueryEndTime());
+            }
+            sb.append(';');
+        }
+        sb.append('#');
+        if (signals != null) {
+            for (final String signal : new TreeSet<>(signals)) {
+                sb.append(signal).append(',');
+            }
+        }
+        sb.append('#').append(columnExpandMode).append('#').append(signalQueueMode).append('#').append(query);
+        return new Key(sb.toString());
+    }
+    
+    /**
+     * Get a cached result for a window, slicing a cached superset window if needed.
+     * 
+     * @param key the key
+     * @param startTime the window start in epoch milliseconds, inclusive, or Long.MIN_VALUE
+     * @param endTime the window end in epoch milliseconds, exclusive, or Long.MAX_VALUE
+     * @return the result, or null if not cached
+     */
+    public synchronized Result get(final Key key, final long startTime, final long endTime) {
+        final long now = System.currentTimeMillis();
+        Entry exact = entries.get(new Window(key, startTime, endTime));
+        if (exact != null && !expired(exact, now)) {
+            ++hits;
+            return exact.result(Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        
+        for (final Map.Entry<Window, Entry> e : entries.entrySet()) {
+            final Window w = e.getKey();
+            if (w.key.equals(key) && w.startTime <= startTime && w.endTime >= endTime && !expired(e.getValue(), now)) {
+                final Entry entry = entries.get(w); //touch for lru
+                ++hits;
+                return entry.result(startTime, endTime);
+            }
+        }
+        ++misses;
+        return null;
+    }
+    
+    /**
+     * Put a result into the cache.
+     * 
+     * @param key the key
+     * @param startTime the window start in epoch milliseconds, inclusive, or Long.MIN_VALUE
+     * @param endTime the window end in epoch milliseconds, exclusive, or Long.MAX_VALUE
+     * @param cols the column names including the time column
+     * @param rows the rows, with the row time as {@link Instant} in the first column
+     */
+    public void put(final Key key, final long startTime, final long endTime, final List<String> cols, final Object[][] rows) {
+        final Entry entry = new Entry(cols, rows, System.currentTimeMillis()); //encode outside the lock
+        if (entry.bytes > maxBytes) {
+            return;
+        }
+        
+        synchronized (this) {
+            final Entry previous = entries.put(new Window(key, startTime, endTime), entry);
+            if (previous != null) {
+                bytes -= previous.bytes;
+            }
+            bytes += entry.bytes;
+            
+            final long now = entry.created;
+            final Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                final Entry e = it.next();
+                if (bytes > maxBytes || expired(e, now)) {
+                    it.remove();
+                    bytes -= e.bytes;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+    
+    /**
+     * Get the estimated bytes held.
+     * 
+     * @return bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+    
+    /**
+     * Get the number of entries.
+     * 
+     * @return size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Get the number of cache hits.
+     * 
+     * @return hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    /**
+     * Get the number of cache misses.
+     * 
+     * @return misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    private boolean expired(final Entry entry, final long now) {
+        return ttlMillis > 0 && now - entry.created > ttlMillis;
+    }
+    
+    /**
+     * The identity of a query without its time window.
+     */
+    public static final class Key {
+        private final String id;
+        
+        private Key(final String id) {
+            this.id = id;
+        }
+        
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Key && id.equals(((Key) o).id);
+        }
+        
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+        
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+    
+    /**
+     * A cached result.
+     */
+    public static final class Result {
+        private final List<String> cols;
+        private final Object[][] rows;
+        
+        Result(final List<String> cols, final Object[][] rows) {
+            this.cols = cols;
+            this.rows = rows;
+        }
+        
+        /**
+         * Get the column names including the time column.
+         * 
+         * @return list of columns
+         */
+        public List<String> cols() {
+            return cols;
+        }
+        
+        /**
+         * Get the rows, with the row time as {@link Instant} in the first column.
+         * 
+         * @return the rows
+         */
+        public Object[][] rows() {
+            return rows;
+        }
+    }
+    
+    private static final class Window {
+        private final Key key;
+        private final long startTime;
+        private final long endTime;
+        
+        Window(final Key key, final long startTime, final long endTime) {
+            this.key = key;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+        
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Window)) {
+                return false;
+            }
+            final Window w = (Window) o;
+            return key.equals(w.key) && startTime == w.startTime && endTime == w.endTime;
+        }
+        
+        @Override
+        public int hashCode() {
+            return key.hashCode() * 31 + Long.hashCode(startTime) * 17 + Long.hashCode(endTime);
+        }
+    }
+    
+    private static final int T_OBJECT = 0, T_DOUBLE = 1, T_FLOAT = 2, T_LONG = 3, T_INT = 4, T_SHORT = 5, T_BYTE = 6, T_STRING = 7;
+    
+    /**
+     * A columnar encoded result.
+     */
+    private static final class Entry {
+        private final List<String> cols;
+        private final long created;
+        private final long[] times;
+        private final int[] types;
+        private final Object[] columns;
+        private final BitSet[] nulls;
+        private final StringDictionary[] dictionaries;
+        private final long bytes;
+        
+        Entry(final List<String> cols, final Object[][] rows, final long created) {
+            this.cols = Collections.unmodifiableList(new ArrayList<>(cols));
+            this.created = created;
+            
+            final int n = rows.length;
+            final int ncols = cols.size();
+            times = new long[n];
+            for (int r = 0; r < n; ++r) {
+                final Instant time = (Instant) rows[r][0];
+                times[r] = time.getEpochSecond() * 1000000000L + time.getNano();
+            }
+            
+            types = new int[ncols];
+            columns = new Object[ncols];
+            nulls = new BitSet[ncols];
+            dictionaries = new StringDictionary[ncols];
+            long size = 64L * ncols + 8L * n;
+            for (int c = 1; c < ncols; ++c) {
+                size += encode(rows, c);
+            }
+            bytes = size;
+        }
+        
+        private long encode(final Object[][] rows, final int c) {
+            final int n = rows.length;
+            int type = -1;
+            for (int r = 0; r < n && type != T_OBJECT; ++r) {
+                final Object o = rows[r][c];
+                if (o != null) {
+                    final int t = typeOf(o);
+                    type = type < 0 || type == t ? t : T_OBJECT;
+                }
+            }
+            if (type < 0) {
+                type = T_OBJECT;
+            }
+            types[c] = type;
+            
+            if (type == T_STRING) {
+                final StringDictionary dictionary = new StringDictionary();
+                columns[c] = dictionary.encodeColumn(rows, c);
+                dictionaries[c] = dictionary;
+                long size = 4L * n;
+                for (final String s : dictionary.values()) {
+                    size += 48 + 2L * s.length();
+                }
+                return size;
+            } else if (type == T_OBJECT) {
+                final Object[] values = new Object[n];
+                for (int r = 0; r < n; ++r) {
+                    values[r] = rows[r][c];
+                }
+                columns[c] = values;
+                return 4L * n + 32L * n; //reference plus an estimated retained object
+            }
+            
+            final BitSet nullbits = new BitSet(n);
+            if (type == T_DOUBLE || type == T_FLOAT) {
+                final double[] values = new double[n];
+                for (int r = 0; r < n; ++r) {
+                    final Object o = rows[r][c];
+                    if (o == null) {
+                        nullbits.set(r);
+                    } else {
+                        values[r] = ((Number) o).doubleValue();
+                    }
+                }
+                columns[c] = values;
+            } else {
+                final long[] values = new long[n];
+                for (int r = 0; r < n; ++r) {
+                    final Object o = rows[r][c];
+                    if (o == null) {
+                        nullbits.set(r);
+                    } else {
+                        values[r] = ((Number) o).longValue();
+                    }
+                }
+                columns[c] = values;
+            }
+            nulls[c] = nullbits;
+            return 8L * n + n / 8;
+        }
+        
+        private static int typeOf(final Object o) {
+            if (o instanceof Double) {
+                return T_DOUBLE;
+            } else if (o instanceof Float) {
+                return T_FLOAT;
+            } else if (o instanceof Long) {
+                return T_LONG;
+            } else if (o instanceof Integer) {
+                return T_INT;
+            } else if (o instanceof Short) {
+                return T_SHORT;
+            } else if (o instanceof Byte) {
+                return T_BYTE;
+            } else if (o instanceof String) {
+                return T_STRING;
+            }
+            return T_OBJECT;
+        }
+        
+        Result result(final long startTime, final long endTime) {
+            final int from = startTime == Long.MIN_VALUE ? 0 : lowerBound(startTime * 1000000L);
+            final int to = endTime == Long.MAX_VALUE ? times.length : lowerBound(endTime * 1000000L);
+            final int ncols = cols.size();
+            final Object[][] rows = new Object[Math.max(0, to - from)][];
+            for (int r = from; r < to; ++r) {
+                final Object[] row = new Object[ncols];
+                row[0] = Instant.ofEpochSecond(Math.floorDiv(times[r], 1000000000L), Math.floorMod(times[r], 1000000000L));
+                for (int c = 1; c < ncols; ++c) {
+                    row[c] = value(c, r);
+                }
+                rows[r - from] = row;
+            }
+            return new Result(cols, rows);
+        }
+        
+        private Object value(final int c, final int r) {
+            switch (types[c]) {
+                case T_OBJECT: return ((Object[]) columns[c])[r];
+                case T_STRING: return dictionaries[c].decode(((int[]) columns[c])[r]);
+                default:
+                    break;
+            }
+            if (nulls[c].get(r)) {
+                return null;
+            }
+            switch (types[c]) {
+                case T_DOUBLE: return ((double[]) columns[c])[r];
+                case T_FLOAT: return (float) ((double[]) columns[c])[r];
+                case T_LONG: return ((long[]) columns[c])[r];
+                case T_INT: return (int) ((long[]) columns[c])[r];
+                case T_SHORT: return (short) ((long[]) columns[c])[r];
+                default: return (byte) ((long[]) columns[c])[r];
+            }
+        }
+        
+        private int lowerBound(final long nanos) {
+            int lo = 0, hi = times.length;
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (times[mid] < nanos) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+import com.exceeddata.sdk.vdata.data.VDataMeta;
+import com.exceeddata.sdk.vdata.data.VDataReader;
+
+/**
+ * Metadata-only scanning of vsw files for catalogs.  A plain file is opened once through a
+ * positional reader with a small read-ahead window, and the meta, names and descriptions are
+ * all parsed from the same window, so only the header regions are read from storage.
+ *
+ */
+public final class VswCatalog {
+    private static final int SCAN_READ_AHEAD_SIZE = 64 * 1024;
+    
+    private VswCatalog() {}
+    
+    /**
+     * Scan the catalog record of a file.
+     * 
+     * @param path the file path
+     * @return the catalog record
+     * @throws IOException if occurs
+     */
+    public static CatalogRecord scanCatalog(final Path path) throws IOException {
+        return scanCatalog(path, false);
+    }
+    
+    /**
+     * Scan the catalog record of a file.  Base64 encoded files have to be decoded as a whole, though
+     * without holding the encoded copy.
+     * 
+     * @param path the file path
+     * @param base64Encoded whether the file is base64 encoded
+     * @return the catalog record
+     * @throws IOException if occurs
+     */
+    public static CatalogRecord scanCatalog(final Path path, final boolean base64Encoded) throws IOException {
+        final BinarySeekableReader seekable = base64Encoded
+                ? new Base64FileSeekableReader(path.toString())
+                : new AsyncFileSeekableReader(path.toString(), SCAN_READ_AHEAD_SIZE, null, null);
+        try {
+            final VDataMeta meta = VDataReader.getMeta(seekable);
+            seekable.seek(0);
+            final String[] names = VDataReader.getNames(seekable);
+            seekable.seek(0);
+            final String[] descs = VDataReader.getDescs(seekable);
+            return new CatalogRecord(
+                    path.toString(),
+                    Files.size(path),
+                    meta.getFormatVersion(),
+                    meta.getCompressMethod(),
+                    meta.getEncryptionMethod(),
+                    meta.getBlocksCount(),
+                    meta.getStorageStartTime(),
+                    meta.getStorageEndTime(),
+                    names,
+                    descs);
+        } finally {
+            seekable.close();
+        }
+    }
+    
+    /**
+     * Scan the catalog records of all the vsw files under a directory in parallel.  Records are
+     * passed to the consumer on the calling thread in completion order, and at most two files per
+     * thread are in flight.  Files that fail to scan are reported to stderr and skipped.
+     * 
+     * @param dir the directory
+     * @param base64Encoded whether the files are base64 encoded
+     * @param threads the number of scanning threads
+     * @param consumer the record consumer
+     * @return the number of records scanned
+     * @throws IOException if the directory cannot be listed
+     */
+    public static int scanDirectory(
+            final Path dir,
+            final boolean base64Encoded,
+            final int threads,
+            final Consumer<CatalogRecord> consumer) throws IOException {
+        final int nthreads = Math.max(1, threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(nthreads);
+        try (Stream<Path> walk = Files.walk(dir)) {
+            final Iterator<Path> paths = walk.filter(p -> ApplicationUtils.validateFile(p.toFile(), base64Encoded)).iterator();
+            final ExecutorCompletionService<CatalogRecord> completion = new ExecutorCompletionService<>(executor);
+            
+            //submit more files as records are taken, so the queued paths and records stay bounded on large trees
+            final int maxInFlight = nthreads * 2;
+            int inflight = 0, count = 0;
+            while (true) {
+                while (inflight < maxInFlight && paths.hasNext()) {
+                    submit(completion, paths.next(), base64Encoded);
+                    ++inflight;
+                }
+                if (inflight == 0) {
+                    break;
+                }
+                
+                final CatalogRecord record;
+                try {
+                    record = completion.take().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                } catch (ExecutionException e) {
+                    throw new IOException(e.getCause());
+                }
+                --inflight;
+                if (record != null) {
+                    consumer.accept(record);
+                    ++count;
+                }
+            }
+            return count;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static void submit(final ExecutorCompletionService<CatalogRecord> completion, final Path p, final boolean base64Encoded) {
+        completion.submit(() -> {
+            try {
+                return scanCatalog(p, base64Encoded);
+            } catch (IOException | RuntimeException e) {
+                //one corrupt file must not abort the scan
+                System.err.println("Error: failed to scan " + p + ": " + e);
+                return null;
+            }
+        });
+    }
+}
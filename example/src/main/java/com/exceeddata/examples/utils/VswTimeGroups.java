@@ -0,0 +1,143 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import com.exceeddata.sdk.vdata.binary.BinarySeekableReader;
+import com.exceeddata.sdk.vdata.data.VDataMeta;
+import com.exceeddata.sdk.vdata.data.VDataReader;
+import com.exceeddata.sdk.vdata.typed.DExpand;
+
+/**
+ * Groups vsw files by storage time range so that consecutive files can be decoded one group
+ * at a time.  Files whose time ranges intersect are kept in the same group so the SDK still
+ * merges their overlapping buckets, while files that do not overlap are decoded on their own.
+ *
+ */
+public final class VswTimeGroups {
+    private static final int SCAN_READ_AHEAD_SIZE = 64 * 1024;
+    
+    private final List<List<String>> groups;
+    private final List<String> names;
+    
+    private VswTimeGroups(final List<List<String>> groups, final List<String> names) {
+        this.groups = groups;
+        this.names = names;
+    }
+    
+    /**
+     * Scan the file headers and group the files by intersecting storage time ranges.  Plain
+     * files are read positionally, so only the header and meta regions are read.
+     * 
+     * @param paths the input file paths
+     * @param base64Encoded whether the files are base64 encoded
+     * @param insensitiveCase whether to read the signal names as lower-case
+     * @param columnExpandMode the column expand mode, or null for default
+     * @return the groups
+     * @throws IOException if occurs
+     */
+    public static VswTimeGroups scan(
+            final List<String> paths,
+            final boolean base64Encoded,
+            final boolean insensitiveCase,
+            final String columnExpandMode) throws IOException {
+        final DExpand expand = columnExpandMode != null ? DExpand.getMode(columnExpandMode) : DExpand.getDefaultMode();
+        final List<long[]> ranges = new ArrayList<>(paths.size());
+        final LinkedHashSet<String> names = new LinkedHashSet<>();
+        
+        for (int i = 0; i < paths.size(); ++i) {
+            final BinarySeekableReader seekable = open(paths.get(i), base64Encoded);
+            try {
+                final VDataMeta meta = VDataReader.getMeta(seekable);
+                ranges.add(new long[] { meta.getStorageStartTime(), meta.getStorageEndTime(), i });
+                seekable.seek(0);
+                Collections.addAll(names, VDataReader.getNames(Collections.singletonList(seekable), insensitiveCase, expand));
+            } finally {
+                seekable.close();
+            }
+        }
+        
+        Collections.sort(ranges, new Comparator<long[]>() {
+            @Override
+            public int compare(final long[] a, final long[] b) {
+                return a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]);
+            }
+        });
+        
+        final List<List<String>> groups = new ArrayList<>();
+        List<String> group = null;
+        long groupEnd = Long.MIN_VALUE;
+        for (final long[] range : ranges) {
+            if (group == null || range[0] > groupEnd) {
+                group = new ArrayList<>();
+                groups.add(group);
+                groupEnd = range[1];
+            } else {
+                groupEnd = Math.max(groupEnd, range[1]);
+            }
+            group.add(paths.get((int) range[2]));
+        }
+        return new VswTimeGroups(groups, new ArrayList<>(names));
+    }
+    
+    private static BinarySeekableReader open(final String path, final boolean base64Encoded) throws IOException {
+        if (!base64Encoded) {
+            return new AsyncFileSeekableReader(path, SCAN_READ_AHEAD_SIZE, null, null);
+        }
+        return new Base64FileSeekableReader(path);
+    }
+    
+    /**
+     * Get the file groups in time order.  Each group holds files whose time ranges intersect.
+     * 
+     * @return list of groups of file paths
+     */
+    public List<List<String>> groups() {
+        return groups;
+    }
+    
+    /**
+     * Get the union of signal names of all the files, in the order first seen.
+     * 
+     * @return list of names
+     */
+    public List<String> names() {
+        return names;
+    }
+}
@@ -0,0 +1,187 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.frame;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.exceeddata.examples.codec.BlockCodec;
+import com.exceeddata.examples.codec.DeflateBlockCodec;
+
+public class FrameBinaryFormatTest {
+    private static final List<String> COLS = Arrays.asList(
+            "time", "double", "float", "long", "int", "short", "byte", "boolean", "string", "empty", "mixed", "struct", "numbers", "strings");
+    
+    /**
+     * Rows of every column type, with nulls in every column but the first rows.
+     */
+    private static Object[][] rows(final int n) {
+        final Object[][] rows = new Object[n][];
+        for (int i = 0; i < n; ++i) {
+            final boolean isnull = i % 5 == 4;
+            final Map<String, Object> struct = new LinkedHashMap<>();
+            struct.put("x", (double) i);
+            struct.put("y", i % 2 == 0 ? null : "s" + i);
+            rows[i] = new Object[] {
+                Instant.ofEpochMilli(1700000000000L + i * 10L - (i == 3 ? 20 : 0)),
+                isnull ? null : i * 0.25d,
+                isnull ? null : i * 0.5f,
+                isnull ? null : (long) i << 40,
+                isnull ? null : -i,
+                isnull ? null : (short) (i * 3),
+                isnull ? null : (byte) i,
+                isnull ? null : i % 2 == 0,
+                isnull ? null : i % 3 == 0 ? "P" : "Dé",
+                null,
+                isnull ? null : i % 2 == 0 ? (Object) (double) i : (Object) (long) i,
+                isnull ? null : struct,
+                isnull ? null : new Number[] { i, null, i * 1.5d },
+                isnull ? null : new String[] { "a", null, "c,\"d\"" },
+            };
+        }
+        return rows;
+    }
+    
+    private static byte[] write(final Object[][] rows, final BlockCodec codec, final int batchRows) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final FrameBinaryWriter writer = new FrameBinaryWriter(bos, codec, batchRows);
+        writer.writeHeader(COLS);
+        for (final Object[] row : rows) {
+            writer.write(row);
+        }
+        writer.close();
+        assertEquals(bos.size(), writer.getBytes());
+        return bos.toByteArray();
+    }
+    
+    private static List<Object[]> read(final FrameBinaryReader reader) throws IOException {
+        assertEquals(COLS, reader.cols());
+        final List<Object[]> rows = new ArrayList<>();
+        FrameBatch batch;
+        while ((batch = reader.next()) != null) {
+            rows.addAll(Arrays.asList(batch.toRows()));
+        }
+        assertNull(reader.next());
+        reader.close();
+        return rows;
+    }
+    
+    private static void assertRows(final Object[][] expected, final List<Object[]> actual) {
+        assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; ++i) {
+            assertArrayEquals(expected[i], actual.get(i));
+        }
+    }
+    
+    private static File temp(final byte[] data) throws IOException {
+        final File file = File.createTempFile("frame", ".vbin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), data);
+        return file;
+    }
+    
+    @Test
+    public void roundTripsEveryTypeFromStream() throws IOException {
+        final Object[][] rows = rows(23);
+        assertRows(rows, read(new FrameBinaryReader(new ByteArrayInputStream(write(rows, null, 10)))));
+    }
+    
+    @Test
+    public void roundTripsEveryTypeMapped() throws IOException {
+        final Object[][] rows = rows(23);
+        final File file = temp(write(rows, null, 10));
+        assertRows(rows, read(FrameBinaryReader.open(file.toPath())));
+    }
+    
+    @Test
+    public void roundTripsCompressedFromStreamAndMapped() throws IOException {
+        final Object[][] rows = rows(500);
+        final byte[] plain = write(rows, null, 200);
+        final byte[] data = write(rows, new DeflateBlockCodec(), 200);
+        assertTrue(data.length < plain.length);
+        assertRows(rows, read(new FrameBinaryReader(new ByteArrayInputStream(data))));
+        assertRows(rows, read(FrameBinaryReader.open(temp(data).toPath())));
+    }
+    
+    @Test
+    public void keepsPrimitiveAccessAndDictionary() throws IOException {
+        final Object[][] rows = rows(5);
+        final FrameBinaryReader reader = new FrameBinaryReader(new ByteArrayInputStream(write(rows, null, 10)));
+        final FrameBatch batch = reader.next();
+        assertEquals(5, batch.getRows());
+        assertEquals(0.75d, batch.getDouble(1, 3), 0d);
+        assertEquals(-3d, batch.getDouble(4, 3), 0d);
+        assertTrue(batch.isNull(1, 4));
+        assertTrue(batch.isNull(9, 0));
+        assertEquals(Arrays.asList("P", "Dé"), Arrays.asList(batch.getDictionary(8)));
+        assertEquals(0, batch.getCode(8, 3));
+        assertEquals(-1, batch.getCode(8, 4));
+        assertEquals(Instant.ofEpochMilli(1700000000010L), batch.getTime(3));
+        try {
+            batch.getDouble(11, 0);
+            fail("struct column is not numeric");
+        } catch (IOException e) {
+            //expected
+        }
+    }
+    
+    @Test
+    public void rejectsUnsupportedValueType() throws IOException {
+        final FrameBinaryWriter writer = new FrameBinaryWriter(new ByteArrayOutputStream(), null, 10);
+        writer.writeHeader(Arrays.asList("time", "value"));
+        writer.write(new Object[] { Instant.ofEpochMilli(0), new StringBuilder("x") });
+        try {
+            writer.close();
+            fail("unsupported value type written");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("StringBuilder"));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+package com.exceeddata.examples.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ChangeOnlyRowWriterTest {
+    
+    /**
+     * Write rows of (speed, gear, mode) and return the written lines without the time.
+     */
+    private static List<String> write(final double deadband, final Map<String, Double> deadbands, final Object[][] values) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ChangeOnlyRowWriter writer = new ChangeOnlyRowWriter(out, new DecimalFormat("0.###"), deadband, deadbands);
+        writer.writeHeader(Arrays.asList("time", "speed", "gear", "mode"));
+        for (int i = 0; i < values.length; ++i) {
+            final Object[] row = new Object[values[i].length + 1];
+            row[0] = Instant.ofEpochMilli(1000 + i * 10);
+            System.arraycopy(values[i], 0, row, 1, values[i].length);
+            writer.write(row);
+        }
+        writer.close();
+        
+        final String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals("time,signal,value", lines[0]);
+        final List<String> changes = new ArrayList<>();
+        for (int i = 1; i < lines.length; ++i) {
+            changes.add(lines[i].substring(lines[i].indexOf(',') + 1));
+        }
+        assertEquals(writer.getChanges(), changes.size());
+        return changes;
+    }
+    
+    @Test
+    public void writesEveryChangeWithoutDeadband() throws IOException {
+        final List<String> changes = write(0d, null, new Object[][] {
+            { 10d, 1, "P" },
+            { 10d, 1, "P" },
+            { 10.1d, null, "D" },
+            { 10.1d, 2, "D" },
+        });
+        assertEquals(Arrays.asList("speed,10", "gear,1", "mode,P", "speed,10.1", "mode,D", "gear,2"), changes);
+    }
+    
+    @Test
+    public void deadbandComparesAgainstLastWrittenValue() throws IOException {
+        final List<String> changes = write(0.5d, null, new Object[][] {
+            { 10d, null, null },
+            { 10.3d, null, null },
+            { 10.45d, null, null },
+            { 10.6d, null, null },
+            { 10.4d, null, null },
+            { 11.2d, null, null },
+            { Double.NaN, null, null },
+            { Double.NaN, null, null },
+        });
+        //NaN is written once as a change, then equals the last written NaN
+        assertEquals(4, changes.size());
+        assertEquals(Arrays.asList("speed,10", "speed,10.6", "speed,11.2"), changes.subList(0, 3));
+        assertTrue(changes.get(3).startsWith("speed,"));
+    }
+    
+    @Test
+    public void signalDeadbandOverridesDefault() throws IOException {
+        final List<String> changes = write(0.5d, Collections.singletonMap("gear", 0d), new Object[][] {
+            { 10d, 1, null },
+            { 10.2d, 1, null },
+            { 10.4d, 2, null },
+            { 10.4d, 2L, null },
+        });
+        assertEquals(Arrays.asList("speed,10", "gear,1", "gear,2"), changes);
+    }
+}
@@ -0,0 +1,99 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+package com.exceeddata.examples.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ResamplerTest {
+    private static final double DELTA = 1e-9;
+    
+    /**
+     * Samples 10.0 at 100us, 20.0 at 200us and 40.0 at 400us.
+     */
+    private static NumericSeries series() {
+        final NumericSeries s = new NumericSeries("speed", 4);
+        s.add(100, 10d);
+        s.add(200, 20d);
+        s.add(400, 40d);
+        return s;
+    }
+    
+    private static double[] resample(final Resampler.Mode mode, final long start, final long interval, final int rows) {
+        final double[] out = new double[rows];
+        new Resampler(new NumericSeries[] { series() }, mode).resample(start, interval, rows, out);
+        return out;
+    }
+    
+    @Test
+    public void linearInterpolatesBetweenSamplesAndHoldsAfterEnd() {
+        final double[] out = resample(Resampler.Mode.LINEAR, 50, 50, 10);
+        assertArrayEquals(new double[] { Double.NaN, 10, 15, 20, 25, 30, 35, 40, 40, 40 }, out, DELTA);
+    }
+    
+    @Test
+    public void nearestPicksClosestSampleAndEarlierOnTie() {
+        final double[] out = resample(Resampler.Mode.NEAREST, 50, 50, 10);
+        assertArrayEquals(new double[] { 10, 10, 10, 20, 20, 20, 40, 40, 40, 40 }, out, DELTA);
+    }
+    
+    @Test
+    public void previousForwardFills() {
+        final double[] out = resample(Resampler.Mode.PREVIOUS, 50, 50, 10);
+        assertArrayEquals(new double[] { Double.NaN, 10, 10, 20, 20, 20, 20, 40, 40, 40 }, out, DELTA);
+    }
+    
+    @Test
+    public void chunksContinueFromTheCursor() {
+        final Resampler resampler = new Resampler(new NumericSeries[] { series() }, Resampler.Mode.LINEAR);
+        final double[] first = new double[5], second = new double[5];
+        resampler.resample(50, 50, 5, first);
+        resampler.resample(300, 50, 5, second);
+        assertArrayEquals(new double[] { Double.NaN, 10, 15, 20, 25 }, first, DELTA);
+        assertArrayEquals(new double[] { 30, 35, 40, 40, 40 }, second, DELTA);
+    }
+    
+    @Test
+    public void writesRowMajorAcrossSeries() {
+        final NumericSeries other = new NumericSeries("gear", 2);
+        other.add(0, 1d);
+        other.add(300, 3d);
+        final Resampler resampler = new Resampler(new NumericSeries[] { series(), other }, Resampler.Mode.NEAREST);
+        assertEquals(2, resampler.width());
+        
+        final double[] out = new double[6];
+        resampler.resample(100, 100, 3, out);
+        assertArrayEquals(new double[] { 10, 1, 20, 3, 20, 3 }, out, DELTA);
+    }
+}
@@ -0,0 +1,106 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+package com.exceeddata.examples.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RowFilterTest {
+    private static final List<String> COLS = Arrays.asList("time", "speed", "brake");
+    
+    /**
+     * Offer rows of (time millis, speed, brake) and return the times of the rows passed.
+     */
+    private static List<Long> filter(final String expression, final long paddingMillis, final Object[][] rows) throws IOException {
+        final RowFilter<Object[]> filter = new RowFilter<>(RowPredicate.compile(expression, COLS), paddingMillis);
+        final List<Object[]> out = new ArrayList<>();
+        for (final Object[] values : rows) {
+            final Object[] row = new Object[] { Instant.ofEpochMilli((Long) values[0]), values[1], values[2] };
+            final int before = out.size();
+            final int n = filter.offer((Instant) row[0], row, row, out);
+            assertEquals(out.size() - before, n);
+        }
+        final List<Long> times = new ArrayList<>();
+        for (final Object[] row : out) {
+            times.add(((Instant) row[0]).toEpochMilli());
+        }
+        return times;
+    }
+    
+    @Test
+    public void passesMatchesOnlyWithoutPadding() throws IOException {
+        final List<Long> times = filter("speed > 100", 0, new Object[][] {
+            { 0L, 90d, 0 },
+            { 10L, 110d, 0 },
+            { 20L, 95d, 0 },
+            { 30L, 120d, 0 },
+        });
+        assertEquals(Arrays.asList(10L, 30L), times);
+    }
+    
+    @Test
+    public void padsRowsBeforeAndAfterMatches() throws IOException {
+        final List<Long> times = filter("speed > 100", 20, new Object[][] {
+            { 0L, 90d, 0 },
+            { 10L, 91d, 0 },
+            { 20L, 92d, 0 },
+            { 30L, 110d, 0 },
+            { 40L, 93d, 0 },
+            { 50L, 94d, 0 },
+            { 60L, 95d, 0 },
+            { 100L, 96d, 0 },
+            { 110L, 130d, 0 },
+        });
+        //each row is passed once, also where the padding of two matches would overlap
+        assertEquals(Arrays.asList(10L, 20L, 30L, 40L, 50L, 100L, 110L), times);
+    }
+    
+    @Test
+    public void testsForwardFilledValuesOfSparseRows() throws IOException {
+        final List<Long> times = filter("speed > 100 && brake == 1", 0, new Object[][] {
+            { 0L, 110d, null },
+            { 10L, null, 1 },
+            { 20L, null, null },
+            { 30L, 90d, null },
+            { 40L, null, null },
+            { 50L, 120d, null },
+        });
+        assertEquals(Arrays.asList(10L, 20L, 50L), times);
+    }
+}
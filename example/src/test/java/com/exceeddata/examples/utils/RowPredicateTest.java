@@ -0,0 +1,115 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+package com.exceeddata.examples.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RowPredicateTest {
+    private static final List<String> COLS = Arrays.asList("speed", "brake", "gear");
+    
+    private static boolean test(final String expression, final Object... values) throws IOException {
+        return RowPredicate.compile(expression, COLS).test(values);
+    }
+    
+    private static void assertInvalid(final String expression) {
+        try {
+            RowPredicate.compile(expression, COLS);
+            fail("accepted invalid expression: " + expression);
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Error: "));
+        }
+    }
+    
+    @Test
+    public void comparesNumbersStringsAndBooleans() throws IOException {
+        assertTrue(test("speed > 120", 120.5d, 0, "D"));
+        assertFalse(test("speed > 120", 120, 0, "D"));
+        assertTrue(test("speed >= 120", 120, 0, "D"));
+        assertTrue(test("speed <= 120 && speed < 121", 120L, 0, "D"));
+        assertTrue(test("brake == 1", 0d, 1, "D"));
+        assertTrue(test("brake = true", 0d, true, "D"));
+        assertTrue(test("gear == 'R'", 0d, 0, "R"));
+        assertTrue(test("gear != \"R\"", 0d, 0, "D"));
+        assertTrue(test("gear == D", 0d, 0, "D"));
+    }
+    
+    @Test
+    public void andBindsTighterThanOr() throws IOException {
+        //speed > 100 || (brake == 1 && gear == 'R')
+        assertTrue(test("speed > 100 || brake == 1 && gear == 'R'", 150d, 0, "D"));
+        assertFalse(test("speed > 100 || brake == 1 && gear == 'R'", 50d, 1, "D"));
+        //(speed > 100 || brake == 1) && gear == 'R'
+        assertFalse(test("(speed > 100 || brake == 1) && gear == 'R'", 150d, 0, "D"));
+        assertTrue(test("(speed > 100 || brake == 1) && gear == 'R'", 50d, 1, "R"));
+        assertTrue(test("!speed > 100 && brake == 1", 50d, 1, "R"));
+        assertFalse(test("!(speed > 100 && brake == 1)", 150d, 1, "R"));
+    }
+    
+    @Test
+    public void nullIsUnknown() throws IOException {
+        assertFalse(test("speed > 100", null, 0, "D"));
+        assertFalse(test("speed != 100", null, 0, "D"));
+        assertFalse(test("!(speed == 100)", null, 0, "D"));
+        assertFalse(test("gear != 'R'", 0d, 0, null));
+        assertFalse(test("speed > 100 && brake == 0", null, 0, "D"));
+        assertTrue(test("speed > 100 || brake == 0", null, 0, "D"));
+        assertFalse(test("!(speed > 100 && brake == 1)", null, 1, "D"));
+        assertTrue(test("!(speed > 100 && brake == 1)", null, 0, "D"));
+        assertFalse(test("gear > 1", 0d, 0, "D"));
+    }
+    
+    @Test
+    public void listsReferencedColumns() throws IOException {
+        assertArrayEquals(new int[] { 0, 2 }, RowPredicate.compile("gear == 'R' || speed > 1 && gear != 'P'", COLS).columns());
+    }
+    
+    @Test
+    public void rejectsInvalidExpressions() {
+        assertInvalid("");
+        assertInvalid("speed >");
+        assertInvalid("speed 120");
+        assertInvalid("rpm > 120");
+        assertInvalid("(speed > 120");
+        assertInvalid("speed > 120)");
+        assertInvalid("gear == 'R");
+        assertInvalid("speed > 120 &&");
+    }
+}
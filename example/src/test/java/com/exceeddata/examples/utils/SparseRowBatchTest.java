@@ -0,0 +1,134 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+package com.exceeddata.examples.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SparseRowBatchTest {
+    private static final int COLS = 130;
+    
+    /**
+     * A row with the time first and values at the given columns, around the 64 column word boundaries.
+     */
+    private static Object[] row(final long millis, final int[] cols, final Object[] values) {
+        final Object[] row = new Object[COLS + 1];
+        row[0] = Instant.ofEpochMilli(millis);
+        for (int i = 0; i < cols.length; ++i) {
+            row[cols[i] + 1] = values[i];
+        }
+        return row;
+    }
+    
+    private static int[] present(final SparseRowBatch batch, final int row) {
+        final List<Integer> cols = new ArrayList<>();
+        for (int c = batch.nextPresent(row, 0); c >= 0; c = batch.nextPresent(row, c + 1)) {
+            cols.add(c);
+        }
+        final int[] result = new int[cols.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = cols.get(i);
+        }
+        return result;
+    }
+    
+    @Test
+    public void walksPresentColumnsAcrossWords() {
+        final int[] cols = { 0, 62, 63, 64, 65, 127, 128, 129 };
+        final Object[] values = { 1.5d, 2f, 3L, 4, (short) 5, (byte) 6, true, "seven" };
+        final SparseRowBatch batch = new SparseRowBatch(COLS, 4);
+        batch.add(Instant.ofEpochMilli(1000), row(1000, cols, values), 1);
+        batch.add(Instant.ofEpochMilli(1010), row(1010, new int[] { 64 }, new Object[] { 8d }), 1);
+        batch.add(Instant.ofEpochMilli(1020), row(1020, new int[0], new Object[0]), 1);
+        
+        assertEquals(3, batch.getRows());
+        assertEquals(9, batch.getValueCount());
+        assertEquals(8, batch.getPresentCount(0));
+        assertArrayEquals(cols, present(batch, 0));
+        assertArrayEquals(new int[] { 64 }, present(batch, 1));
+        assertArrayEquals(new int[0], present(batch, 2));
+        assertEquals(64, batch.nextPresent(1, 0));
+        assertEquals(64, batch.nextPresent(1, 64));
+        assertEquals(-1, batch.nextPresent(1, 65));
+        assertEquals(-1, batch.nextPresent(0, COLS));
+        assertEquals(1010000L, batch.getTimeMicros(1));
+        assertEquals(Instant.ofEpochMilli(1020), batch.getTime(2));
+    }
+    
+    @Test
+    public void returnsValuesWithTheirTypesAcrossWords() {
+        final int[] cols = { 0, 62, 63, 64, 65, 127, 128, 129 };
+        final Object[] values = { 1.5d, 2f, 3L, 4, (short) 5, (byte) 6, true, "seven" };
+        final SparseRowBatch batch = new SparseRowBatch(COLS, 2);
+        batch.add(Instant.ofEpochMilli(1000), row(1000, cols, values), 1);
+        batch.add(Instant.ofEpochMilli(1010), row(1010, new int[] { 1, 64, 128 }, new Object[] { "a", 9L, false }), 1);
+        
+        for (int i = 0; i < cols.length; ++i) {
+            assertEquals(values[i], batch.getObject(0, cols[i]));
+        }
+        assertEquals("a", batch.getObject(1, 1));
+        assertEquals(9L, batch.getObject(1, 64));
+        assertEquals(false, batch.getObject(1, 128));
+        assertNull(batch.getObject(1, 63));
+        assertNull(batch.getObject(1, 129));
+        assertTrue(batch.isEmptyAt(1, 65));
+        assertFalse(batch.isEmptyAt(1, 64));
+        
+        assertEquals(4d, batch.getDouble(0, 64), 0d);
+        assertEquals(1d, batch.getDouble(0, 128), 0d);
+        assertTrue(Double.isNaN(batch.getDouble(0, 129)));
+        assertTrue(Double.isNaN(batch.getDouble(1, 0)));
+        assertTrue(batch.isFull());
+    }
+    
+    @Test
+    public void clearsForReuse() {
+        final SparseRowBatch batch = new SparseRowBatch(COLS, 1);
+        batch.add(Instant.ofEpochMilli(1000), row(1000, new int[] { 3, 70 }, new Object[] { 1, 2 }), 1);
+        batch.clear();
+        assertEquals(0, batch.getRows());
+        
+        batch.add(Instant.ofEpochMilli(2000), row(2000, new int[] { 100 }, new Object[] { 3 }), 1);
+        assertArrayEquals(new int[] { 100 }, present(batch, 0));
+        assertNull(batch.getObject(0, 70));
+        assertEquals(3, batch.getObject(0, 100));
+    }
+}
@@ -0,0 +1,159 @@
+/* 
+ * Copyright (C) 2016-2024 Smart Software for Car Technologies Inc. and EXCEEDDATA
+ *     https://www.smartsct.com
+ *     https://www.exceeddata.com
+ *
+ *                            MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * Except as contained in this notice, the name of a copyright holder
+ * shall not be used in advertising or otherwise to promote the sale, use 
+ * or other dealings in this Software without prior written authorization 
+ * of the copyright holder.
+ */
+
+package com.exceeddata.examples.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class VDataResultCacheTest {
+    private static final List<String> COLS = Arrays.asList("time", "speed", "gear");
+    
+    private static VDataResultCache.Key key(final String signal) throws IOException {
+        final File file = File.createTempFile("cache", ".vsw");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+        return VDataResultCache.key(Collections.singletonList(file.getPath()), null, Collections.singletonList(signal), "full", "last", "objects:0:0");
+    }
+    
+    /**
+     * Rows at 1000, 1010, ... milliseconds.
+     */
+    private static Object[][] rows(final int n) {
+        final Object[][] rows = new Object[n][];
+        for (int i = 0; i < n; ++i) {
+            rows[i] = new Object[] { Instant.ofEpochMilli(1000 + i * 10), i % 3 == 0 ? null : 1.5d * i, i % 2 == 0 ? "P" : "D" };
+        }
+        return rows;
+    }
+    
+    @Test
+    public void exactHitReturnsAllRows() throws IOException {
+        final VDataResultCache cache = new VDataResultCache(1 << 20, 0);
+        final VDataResultCache.Key key = key("speed");
+        final Object[][] rows = rows(10);
+        cache.put(key, 1000, 1100, COLS, rows);
+        
+        final VDataResultCache.Result result = cache.get(key, 1000, 1100);
+        assertNotNull(result);
+        assertEquals(COLS, result.cols());
+        assertEquals(rows.length, result.rows().length);
+        for (int i = 0; i < rows.length; ++i) {
+            assertArrayEquals(rows[i], result.rows()[i]);
+        }
+        assertEquals(1, cache.getHits());
+        assertNull(cache.get(key("other"), 1000, 1100));
+        assertEquals(1, cache.getMisses());
+    }
+    
+    @Test
+    public void slicesSubWindowWithInclusiveStartAndExclusiveEnd() throws IOException {
+        final VDataResultCache cache = new VDataResultCache(1 << 20, 0);
+        final VDataResultCache.Key key = key("speed");
+        final Object[][] rows = rows(10);
+        cache.put(key, Long.MIN_VALUE, Long.MAX_VALUE, COLS, rows);
+        
+        final Object[][] slice = cache.get(key, 1020, 1050).rows();
+        assertEquals(3, slice.length);
+        assertEquals(Instant.ofEpochMilli(1020), slice[0][0]);
+        assertEquals(Instant.ofEpochMilli(1040), slice[2][0]);
+        assertArrayEquals(rows[2], slice[0]);
+        assertArrayEquals(rows[4], slice[2]);
+        
+        assertEquals(0, cache.get(key, 1021, 1029).rows().length);
+        assertEquals(10, cache.get(key, 0, 2000).rows().length);
+        assertNull(cache.get(key("other"), 1020, 1050));
+    }
+    
+    @Test
+    public void doesNotSliceNarrowerWindow() throws IOException {
+        final VDataResultCache cache = new VDataResultCache(1 << 20, 0);
+        final VDataResultCache.Key key = key("speed");
+        cache.put(key, 1020, 1050, COLS, rows(10));
+        assertNull(cache.get(key, 1000, 1050));
+        assertNull(cache.get(key, 1020, 1060));
+    }
+    
+    @Test
+    public void evictsLeastRecentlyUsedOverByteBound() throws IOException {
+        final VDataResultCache.Key first = key("a"), second = key("b"), third = key("c");
+        final VDataResultCache probe = new VDataResultCache(Long.MAX_VALUE, 0);
+        probe.put(first, 0, 1, COLS, rows(100));
+        final long entryBytes = probe.getBytes();
+        
+        final VDataResultCache cache = new VDataResultCache(entryBytes * 2, 0);
+        cache.put(first, 0, 1, COLS, rows(100));
+        cache.put(second, 0, 1, COLS, rows(100));
+        assertNotNull(cache.get(first, 0, 1)); //touch, so the second entry is the eldest
+        cache.put(third, 0, 1, COLS, rows(100));
+        
+        assertEquals(2, cache.size());
+        assertEquals(entryBytes * 2, cache.getBytes());
+        assertNotNull(cache.get(first, 0, 1));
+        assertNull(cache.get(second, 0, 1));
+        assertNotNull(cache.get(third, 0, 1));
+        
+        //an entry larger than the bound is not cached
+        final VDataResultCache.Key large = key("d");
+        cache.put(large, 0, 1, COLS, rows(1000));
+        assertNull(cache.get(large, 0, 1));
+        assertEquals(2, cache.size());
+    }
+    
+    @Test
+    public void expiresAfterTtl() throws IOException, InterruptedException {
+        final VDataResultCache cache = new VDataResultCache(1 << 20, 200);
+        final VDataResultCache.Key key = key("speed");
+        cache.put(key, Long.MIN_VALUE, Long.MAX_VALUE, COLS, rows(10));
+        assertNotNull(cache.get(key, Long.MIN_VALUE, Long.MAX_VALUE));
+        
+        Thread.sleep(400);
+        assertNull(cache.get(key, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertNull(cache.get(key, 1020, 1050));
+        
+        //expired entries are dropped on the next put
+        cache.put(key, 0, 1, COLS, rows(1));
+        assertEquals(1, cache.size());
+    }
+}